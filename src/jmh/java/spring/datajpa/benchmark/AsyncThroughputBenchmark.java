@@ -0,0 +1,75 @@
+package spring.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.support.MemberAsyncRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 요청 처리량 비교
+ * - blocking: 플랫폼 스레드 풀(톰캣 기본 200개)에서 Repository 직접 호출
+ * - async: MemberAsyncRepository (가상 스레드 + 커넥션 풀 크기 제한)
+ * - 한 번의 실행 = concurrentRequests 개의 findByAge 요청을 동시에 보내고 모두 끝날 때까지 대기
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncThroughputBenchmark {
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"100", "1000"})
+    int concurrentRequests;
+
+    BenchmarkContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    MemberAsyncRepository memberAsyncRepository;
+    ExecutorService platformThreads;
+    PageRequest pageRequest = PageRequest.of(0, 10);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        tx = context.readOnlyTransactionTemplate();
+        memberRepository = context.bean(MemberRepository.class);
+        memberAsyncRepository = context.bean(MemberAsyncRepository.class);
+        platformThreads = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformThreads.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public void blocking() {
+        List<CompletableFuture<?>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            int age = i % BenchmarkContext.AGE_RANGE;
+            futures.add(CompletableFuture.runAsync(
+                    () -> tx.execute(status -> memberRepository.findByAge(age, pageRequest)), platformThreads));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Benchmark
+    public void async() {
+        List<CompletableFuture<?>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            futures.add(memberAsyncRepository.findByAge(i % BenchmarkContext.AGE_RANGE, pageRequest));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+}
@@ -0,0 +1,89 @@
+package spring.datajpa.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.DataJpaApplication;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+import spring.datajpa.repository.pure_jpa.TeamJpaRepository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark 용 Spring Context
+ * - 내장 H2(MySQL 모드)로 실행하고 memberCount 만큼 데이터를 저장
+ * - Member: name = "member{i}", age = i % 100, team = 10 명당 Team 1개
+ * */
+public class BenchmarkContext implements AutoCloseable {
+    public static final int MEMBERS_PER_TEAM = 10;
+    public static final int AGE_RANGE = 100;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkContext start(int memberCount, String... properties) {
+        ConfigurableApplicationContext context = application(properties).run();
+        BenchmarkContext benchmarkContext = new BenchmarkContext(context);
+        benchmarkContext.seed(memberCount);
+        return benchmarkContext;
+    }
+
+    //내장 H2 로 실행하는 DataJpaApplication (데이터 저장 없이)
+    static SpringApplicationBuilder application(String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .main(DataJpaApplication.class) //AOT 초기화 클래스(DataJpaApplication__ApplicationContextInitializer)를 찾는 기준
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "decorator.datasource.p6spy.enable-logging=false",
+                        "logging.level.root=warn")
+                .properties(properties);
+    }
+
+    private void seed(int memberCount) {
+        int teamCount = Math.max(1, memberCount / MEMBERS_PER_TEAM);
+        TransactionTemplate tx = transactionTemplate();
+        List<Team> teams = tx.execute(status -> {
+            List<Team> saved = IntStream.range(0, teamCount)
+                    .mapToObj(i -> new Team("team" + i))
+                    .toList();
+            bean(TeamJpaRepository.class).saveAll(saved.stream());
+            return saved;
+        });
+        tx.executeWithoutResult(status -> bean(MemberJpaRepository.class).saveAll(
+                IntStream.range(0, memberCount).mapToObj(i -> {
+                    Member member = new Member("member" + i, i % AGE_RANGE);
+                    member.setTeam(teams.get(i % teamCount));
+                    return member;
+                })));
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(bean(PlatformTransactionManager.class));
+    }
+
+    public TransactionTemplate readOnlyTransactionTemplate() {
+        TransactionTemplate tx = transactionTemplate();
+        tx.setReadOnly(true);
+        return tx;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,54 @@
+package spring.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * bulkAgePlus - 벌크 수정 쿼리
+ * - 매 실행마다 rollback 해서 데이터를 그대로 유지
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkAgePlusBenchmark {
+    @Param({"10000"})
+    int memberCount;
+
+    BenchmarkContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        tx = context.transactionTemplate();
+        memberRepository = context.bean(MemberRepository.class);
+        memberJpaRepository = context.bean(MemberJpaRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer bulkAgePlus() {
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.bulkAgePlus(BenchmarkContext.AGE_RANGE / 2);
+        });
+    }
+
+    @Benchmark
+    public Integer pureJpaBulkAgePlus() {
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            return memberJpaRepository.bulkAgePlus(BenchmarkContext.AGE_RANGE / 2);
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package spring.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영속성 컨텍스트에 memberCount 개의 Member(+ Team)가 있을 때 flush 비용
+ * - findMemberFetchJoin 으로 전부 로딩 후 modifiedRatio 만큼 수정하고 flush 시간만 측정
+ * - 바이트코드 향상(dirty tracking) 여부에 따른 비교:
+ *   ./gradlew jmh -Pjmh.includes=EntityFlushBenchmark
+ *   ./gradlew jmh -Pjmh.includes=EntityFlushBenchmark -PnoEnhancement
+ * - heap: 로딩한 엔티티가 차지하는 heap(엔티티 + 스냅샷)을 trial 시작 시 한 번 측정해서 출력
+ * - 매 실행마다 rollback 해서 데이터를 그대로 유지
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntityFlushBenchmark {
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"0.01"})
+    double modifiedRatio;
+
+    BenchmarkContext context;
+    PlatformTransactionManager transactionManager;
+    EntityManager em;
+    MemberRepository memberRepository;
+    TransactionStatus status;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        transactionManager = context.bean(PlatformTransactionManager.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.bean(EntityManagerFactory.class));
+        memberRepository = context.bean(MemberRepository.class);
+        printRetainedHeap();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    //측정 대상이 아닌 로딩/수정은 invocation 마다 준비
+    @Setup(Level.Invocation)
+    public void load() {
+        status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        List<Member> members = memberRepository.findMemberFetchJoin();
+        int step = Math.max(1, (int) Math.round(1 / modifiedRatio));
+        for (int i = 0; i < members.size(); i += step) {
+            Member member = members.get(i);
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        transactionManager.rollback(status);
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+
+    private void printRetainedHeap() {
+        long before = usedHeap();
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            List<Member> members = memberRepository.findMemberFetchJoin();
+            long retained = usedHeap() - before;
+            System.out.printf("%nretained heap: %d KB for %d members (%d bytes/member)%n",
+                    retained / 1024, members.size(), retained / Math.max(1, members.size()));
+        } finally {
+            transactionManager.rollback(tx);
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,49 @@
+package spring.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * findByNames - IN 절 파라미터 개수에 따른 성능
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FindByNamesBenchmark {
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"10", "1000", "5000"})
+    int nameCount;
+
+    BenchmarkContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        tx = context.readOnlyTransactionTemplate();
+        memberRepository = context.bean(MemberRepository.class);
+        names = IntStream.range(0, nameCount)
+                .mapToObj(i -> "member" + (i * 2 % memberCount))
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findByNames() {
+        return tx.execute(status -> memberRepository.findByNames(names));
+    }
+}
@@ -0,0 +1,79 @@
+package spring.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * id 만 필요한 대량 조회 - List<Long>/엔티티 vs long[] (PrimitiveIds)
+ * - 할당량 비교는 GC profiler 사용 (gc.alloc.rate.norm = 호출 1번당 할당 byte):
+ *   ./gradlew jmh -Pjmh.includes=MemberIdBenchmark -Pjmh.profilers=gc
+ * - ids*: age > N 인 Member id 조회 (JPQL select m.id -> List<Long> / findIdsByAgeGreaterThan -> long[])
+ * - lookup*: id 목록 중 존재하는 id 확인 (findAllById -> 엔티티 / findExistingIds -> long[])
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberIdBenchmark {
+    //lookup 대상: age > 89 인 Member (전체의 약 10%)
+    private static final int AGE_FOR_LOOKUP = 89;
+
+    @Param({"10000"})
+    int memberCount;
+
+    //age > minAge -> 전체의 약 절반
+    @Param({"49"})
+    int minAge;
+
+    BenchmarkContext context;
+    TransactionTemplate tx;
+    EntityManager em;
+    MemberRepository memberRepository;
+    long[] lookupIds;
+    List<Long> boxedLookupIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        tx = context.readOnlyTransactionTemplate();
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.bean(EntityManagerFactory.class));
+        memberRepository = context.bean(MemberRepository.class);
+        lookupIds = tx.execute(status -> memberRepository.findIdsByAgeGreaterThan(AGE_FOR_LOOKUP));
+        boxedLookupIds = Arrays.stream(lookupIds).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> idsBoxed() {
+        return tx.execute(status -> em.createQuery("select m.id from Member m where m.age > :age order by m.id", Long.class)
+                .setParameter("age", minAge)
+                .getResultList());
+    }
+
+    @Benchmark
+    public long[] idsPrimitive() {
+        return tx.execute(status -> memberRepository.findIdsByAgeGreaterThan(minAge));
+    }
+
+    @Benchmark
+    public List<Member> lookupEntities() {
+        return tx.execute(status -> memberRepository.findAllById(boxedLookupIds));
+    }
+
+    @Benchmark
+    public long[] lookupPrimitive() {
+        return tx.execute(status -> memberRepository.findExistingIds(lookupIds));
+    }
+}
@@ -0,0 +1,71 @@
+package spring.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.support.OptimisticRetryExecutor;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 Member 를 여러 스레드가 동시에 수정할 때의 처리량
+ * - pessimistic: findLockByName (SELECT ... FOR UPDATE) 후 수정
+ * - optimistic: findByName 후 수정, version 충돌 시 OptimisticRetryExecutor 가 재시도
+ * - hotMembers 가 작을수록 충돌이 잦음
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class MemberLockBenchmark {
+    @Param({"1000"})
+    int memberCount;
+
+    @Param({"1", "16"})
+    int hotMembers;
+
+    BenchmarkContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    OptimisticRetryExecutor retryExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //충돌이 많은 경우에도 실패하지 않도록 재시도 횟수를 넉넉하게
+        context = BenchmarkContext.start(memberCount,
+                "datajpa.optimistic.max-attempts=100",
+                "datajpa.optimistic.backoff=1ms",
+                "datajpa.optimistic.max-backoff=20ms",
+                "logging.level.org.hibernate.orm.jdbc.batch=off"); //충돌(StaleStateException)마다 ERROR 로그가 남으므로
+        tx = context.transactionTemplate();
+        memberRepository = context.bean(MemberRepository.class);
+        retryExecutor = context.bean(OptimisticRetryExecutor.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void pessimistic() {
+        String name = hotMemberName();
+        tx.executeWithoutResult(status -> agePlus(memberRepository.findLockByName(name).get(0)));
+    }
+
+    @Benchmark
+    public void optimistic() {
+        String name = hotMemberName();
+        retryExecutor.run(() -> agePlus(memberRepository.findByName(name).get(0)));
+    }
+
+    private String hotMemberName() {
+        return "member" + ThreadLocalRandom.current().nextInt(hotMembers);
+    }
+
+    private static void agePlus(Member member) {
+        member.setAge(member.getAge() + 1);
+    }
+}
@@ -0,0 +1,75 @@
+package spring.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member 조회 쿼리 Benchmark
+ * - findAll(@EntityGraph) vs findMemberFetchJoin
+ * - findByAge(Page) vs findSliceByAge(Slice) vs 순수 JPA findByPage
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberQueryBenchmark {
+    @Param({"1000", "10000"})
+    int memberCount;
+
+    BenchmarkContext context;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    PageRequest pageRequest;
+    int age;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        tx = context.readOnlyTransactionTemplate();
+        memberRepository = context.bean(MemberRepository.class);
+        memberJpaRepository = context.bean(MemberJpaRepository.class);
+        // 같은 나이의 Member 중 중간 페이지 조회
+        age = 10;
+        pageRequest = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "name"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findAllEntityGraph() {
+        return tx.execute(status -> memberRepository.findAll());
+    }
+
+    @Benchmark
+    public List<Member> findMemberFetchJoin() {
+        return tx.execute(status -> memberRepository.findMemberFetchJoin());
+    }
+
+    @Benchmark
+    public Page<Member> findByAge() {
+        return tx.execute(status -> memberRepository.findByAge(age, pageRequest));
+    }
+
+    @Benchmark
+    public Slice<Member> findSliceByAge() {
+        return tx.execute(status -> memberRepository.findSliceByAge(age, pageRequest));
+    }
+
+    @Benchmark
+    public List<Member> pureJpaFindByPage() {
+        return tx.execute(status -> memberJpaRepository.findByPage(age, (int) pageRequest.getOffset(), pageRequest.getPageSize()));
+    }
+}
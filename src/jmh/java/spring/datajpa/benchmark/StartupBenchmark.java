@@ -0,0 +1,139 @@
+package spring.datajpa.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * DataJpaApplication 기동 시간/메모리 (./gradlew startupBenchmark -Pruns=10)
+ * - 실행마다 새 JVM 을 띄워서 측정 (JIT, 클래스 로딩, CDS 모두 cold 상태) -> JMH 대신 별도 task
+ * - default: 기본 설정
+ * - fast-startup: fast-startup 프로필 (Repository lazy 초기화, EntityManagerFactory 백그라운드 생성)
+ * - fast-startup-aot: fast-startup 프로필 + Spring AOT (-Dspring.aot.enabled=true)
+ * - 측정: JVM 시작 ~ 기동 완료 시간, refresh 시간, GC 후 heap/non-heap 사용량, 로딩된 클래스 수
+ * - 결과: 각 값의 중앙값을 출력하고 build/results/startup/results.json 에 저장
+ * */
+public class StartupBenchmark {
+    private static final String PROBE = "--probe";
+    private static final String RESULT = "STARTUP_RESULT";
+    private static final String[] METRICS = {"uptimeMs", "refreshMs", "heapMb", "nonHeapMb", "classes"};
+
+    private record Mode(String name, String profile, boolean aot) {
+    }
+
+    private static final List<Mode> MODES = List.of(
+            new Mode("default", null, false),
+            new Mode("fast-startup", "fast-startup", false),
+            new Mode("fast-startup-aot", "fast-startup", true));
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && PROBE.equals(args[0])) {
+            probe(args.length > 1 ? args[1] : null);
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path output = Path.of(args.length > 1 ? args[1] : "build/results/startup/results.json");
+
+        StringJoiner json = new StringJoiner(",\n", "[\n", "\n]\n");
+        System.out.printf("%-18s %10s %10s %10s %10s %10s%n", "mode", METRICS[0], METRICS[1], METRICS[2], METRICS[3], METRICS[4]);
+        for (Mode mode : MODES) {
+            List<double[]> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                samples.add(run(mode));
+            }
+            double[] median = median(samples);
+            System.out.printf("%-18s %10.0f %10.0f %10.1f %10.1f %10.0f%n", mode.name(),
+                    median[0], median[1], median[2], median[3], median[4]);
+            json.add(toJson(mode, runs, median));
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json.toString());
+    }
+
+    //새 JVM 에서 probe 실행
+    private static double[] run(Mode mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        if (mode.aot()) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add(StartupBenchmark.class.getName());
+        command.add(PROBE);
+        if (mode.profile() != null) {
+            command.add(mode.profile());
+        }
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        double[] result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT)) {
+                    result = Arrays.stream(line.substring(RESULT.length()).trim().split(" "))
+                            .mapToDouble(Double::parseDouble)
+                            .toArray();
+                } else {
+                    output.add(line);
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            output.forEach(System.err::println);
+            throw new IllegalStateException("startup probe failed: " + mode.name());
+        }
+        return result;
+    }
+
+    private static void probe(String profile) {
+        long start = System.nanoTime();
+        SpringApplicationBuilder application = BenchmarkContext.application(
+                "spring.main.web-application-type=servlet",
+                "server.port=0");
+        if (profile != null) {
+            application.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = application.run()) {
+            long refreshMs = (System.nanoTime() - start) / 1_000_000;
+            long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+            System.gc();
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            double heapMb = memory.getHeapMemoryUsage().getUsed() / 1024.0 / 1024.0;
+            double nonHeapMb = memory.getNonHeapMemoryUsage().getUsed() / 1024.0 / 1024.0;
+            int classes = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+            System.out.println(RESULT + " " + uptimeMs + " " + refreshMs + " " + heapMb + " " + nonHeapMb + " " + classes);
+        }
+    }
+
+    private static double[] median(List<double[]> samples) {
+        double[] median = new double[METRICS.length];
+        for (int i = 0; i < METRICS.length; i++) {
+            int metric = i;
+            double[] values = samples.stream().mapToDouble(sample -> sample[metric]).sorted().toArray();
+            int middle = values.length / 2;
+            median[i] = values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+        }
+        return median;
+    }
+
+    private static String toJson(Mode mode, int runs, double[] median) {
+        StringJoiner metrics = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < METRICS.length; i++) {
+            metrics.add("\"" + METRICS[i] + "\": " + median[i]);
+        }
+        return String.format("  {\"mode\": \"%s\", \"runs\": %d, \"median\": %s}", mode.name(), runs, metrics);
+    }
+}
@@ -0,0 +1,26 @@
+package spring.datajpa.config;
+
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.repository.support.ChangeEventListener;
+
+import java.util.Map;
+
+/**
+ * Member/Team 변경을 change_event(outbox)에 기록 -> ChangeEventRelay 가 커밋 후 발행
+ * */
+@Configuration
+public class ChangeEventConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer changeEventCustomizer() {
+        ChangeEventListener listener = new ChangeEventListener();
+        return (Map<String, Object> properties) -> HibernateEventListeners.register(properties, registry -> {
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package spring.datajpa.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hibernate 이벤트 리스너 등록 (HibernatePropertiesCustomizer 에서 사용)
+ * - hibernate.integrator_provider 는 값이 하나뿐이므로 먼저 등록된 Integrator 를 유지하고 뒤에 추가
+ * */
+final class HibernateEventListeners {
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    private HibernateEventListeners() {
+    }
+
+    static void register(Map<String, Object> properties, Consumer<EventListenerRegistry> registration) {
+        List<Integrator> integrators = new ArrayList<>();
+        if (properties.get(INTEGRATOR_PROVIDER) instanceof IntegratorProvider provider) {
+            integrators.addAll(provider.getIntegrators());
+        }
+        integrators.add(new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                registration.accept(sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class));
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        });
+        properties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> integrators);
+    }
+}
@@ -0,0 +1,48 @@
+package spring.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * MySQL JDBC 드라이버의 PreparedStatement 캐시 (Hikari dataSourceProperties)
+ * - useServerPrepStmts: 서버에서 prepare 한 statement 를 재사용 -> 매 실행마다 SQL 파싱하지 않음
+ * - cachePrepStmts / prepStmtCacheSize: 커넥션마다 datajpa.jdbc.prep-stmt-cache-size 개의 statement 를 캐시
+ *   -> Repository 쿼리 수 + IN 절 패딩 변형보다 크게
+ * - spring.datasource.hikari.data-source-properties.* 로 직접 설정한 값이 있으면 그 값 사용
+ * - MySQL 이 아닌 드라이버(H2 등)에는 적용하지 않음 (모르는 속성이면 연결에 실패하는 드라이버도 있음)
+ * */
+@Configuration
+public class JdbcStatementCacheConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcStatementCachePostProcessor(
+            @Value("${datajpa.jdbc.prep-stmt-cache-size:500}") int statementCacheSize) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource dataSource) {
+                    applyStatementCache(dataSource, statementCacheSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static void applyStatementCache(HikariDataSource dataSource, int statementCacheSize) {
+        String url = dataSource.getJdbcUrl();
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return;
+        }
+        Properties properties = dataSource.getDataSourceProperties();
+        properties.putIfAbsent("cachePrepStmts", "true");
+        properties.putIfAbsent("prepStmtCacheSize", String.valueOf(statementCacheSize));
+        properties.putIfAbsent("prepStmtCacheSqlLimit", "2048");
+        properties.putIfAbsent("useServerPrepStmts", "true");
+    }
+}
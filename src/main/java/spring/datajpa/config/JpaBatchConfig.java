@@ -0,0 +1,35 @@
+package spring.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.repository.pure_jpa.BatchPersister;
+
+import java.util.Map;
+
+/**
+ * JDBC INSERT/UPDATE 배치 설정
+ * - Member, Team 은 SEQUENCE(pooled) 전략으로 id 를 미리 할당 받으므로 IDENTITY 와 달리 INSERT 배치 가능
+ * - MySQL 에서는 jdbc url 에 rewriteBatchedStatements=true 를 추가해야 multi-row INSERT 로 전송됨
+ * 지연 로딩 배치 조회(batch fetch) 설정
+ * - 프록시/컬렉션을 초기화할 때 같은 종류의 프록시/컬렉션을 최대 fetch-size 개씩 IN (...) 으로 한 번에 조회
+ * - 연관관계 별 크기는 엔티티의 @BatchSize 로 지정 (Member.team -> Team, Team.members)
+ * - spring.jpa.properties.hibernate.* 로 직접 설정한 값이 있으면 그 값을 우선
+ * */
+@Configuration
+public class JpaBatchConfig {
+    @Value("${datajpa.batch.fetch-size:100}")
+    private int batchFetchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer batchPropertiesCustomizer(BatchPersister batchPersister) {
+        return (Map<String, Object> properties) -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchPersister.getBatchSize());
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+            properties.putIfAbsent("hibernate.default_batch_fetch_size", batchFetchSize);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package spring.datajpa.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.repository.support.MemberLookupCache;
+import spring.datajpa.repository.support.MemberLookupCacheEvictListener;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Repository 조회 결과 캐시 (Spring Cache + Caffeine) - MemberLookupCache
+ * - Hibernate 2차 캐시(SecondLevelCacheConfig)와 별개: 엔티티/쿼리 결과가 아니라 메서드 결과(MemberSnapshot)를 캐시
+ * - 캐시 이름을 미리 정해두므로 기동 시 Micrometer 에 cache.gets/cache.evictions 등이 캐시 별로 등록됨 (recordStats)
+ * - Member/Team 변경 시 무효화하는 Hibernate 이벤트 리스너 등록
+ * */
+@Configuration
+@EnableCaching
+public class MemberLookupCacheConfig {
+    @Value("${datajpa.lookup-cache.maximum-size:10000}")
+    private long maximumSize;
+    @Value("${datajpa.lookup-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize) //캐시 별 최대 key 수 (초과 시 W-TinyLFU 로 제거)
+                .expireAfterWrite(ttl) //캐시를 거치지 않은 변경(직접 SQL 등)에 대한 안전망
+                .recordStats());
+        cacheManager.setCacheNames(MemberLookupCache.CACHE_NAMES); //이름을 정하면 그 외 캐시는 만들지 않음
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer memberLookupCacheCustomizer(CacheManager cacheManager) {
+        MemberLookupCacheEvictListener listener = new MemberLookupCacheEvictListener(cacheManager);
+        return (Map<String, Object> properties) -> HibernateEventListeners.register(properties, registry -> {
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        });
+    }
+}
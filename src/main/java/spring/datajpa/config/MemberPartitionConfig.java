@@ -0,0 +1,24 @@
+package spring.datajpa.config;
+
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.repository.support.MemberPartitionKeyValidator;
+
+import java.util.Map;
+
+/**
+ * Member.partitionKey 를 MemberPartitionRouter 와 같은 파티션 수(datajpa.partition.count)로 검증
+ * */
+@Configuration
+public class MemberPartitionConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer memberPartitionKeyCustomizer(@Value("${datajpa.partition.count:16}") int partitionCount) {
+        MemberPartitionKeyValidator validator = new MemberPartitionKeyValidator(partitionCount);
+        return (Map<String, Object> properties) -> HibernateEventListeners.register(properties,
+                registry -> registry.appendListeners(EventType.PRE_INSERT, validator));
+    }
+}
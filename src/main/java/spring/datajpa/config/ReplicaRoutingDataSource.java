@@ -0,0 +1,137 @@
+package spring.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica, 나머지는 primary 로 보내는 DataSource
+ * - replica 는 round-robin 으로 선택
+ * - 연결에 실패하거나 복제 지연이 maxLag 보다 큰 replica 는 건너뛰고, 사용할 replica 가 없으면 primary 사용
+ * - 트랜잭션의 readOnly 여부는 커넥션을 실제로 가져올 때 결정되므로 LazyConnectionDataSourceProxy 로 감싸서 사용해야 함
+ * */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    String lagQuery, Duration maxLag, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    private Connection replicaConnection() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                log.warn("replica connection failed, falling back: {}", e.getMessage());
+                replica.markDown();
+            }
+        }
+        return null;
+    }
+
+    /*
+     - 모든 replica 의 연결과 복제 지연을 확인 (주기적으로 호출)
+     - 지연이 maxLag 보다 크거나 지연을 알 수 없으면(null) 사용하지 않음
+    * */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (lagQuery == null || lagQuery.isBlank()) {
+                    replica.markUp();
+                    continue;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(lagQuery)) {
+                    long lag = rs.next() ? rs.getLong(1) : -1;
+                    if (lag < 0 || rs.wasNull() || lag > maxLagSeconds) {
+                        log.warn("replica lag {}s exceeds {}s, routing reads to primary", lag, maxLagSeconds);
+                        replica.markDown();
+                    } else {
+                        replica.markUp();
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("replica health check failed: {}", e.getMessage());
+                replica.markDown();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private class Replica {
+        private final DataSource dataSource;
+        private volatile long downUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable() {
+            return downUntil == 0 || System.nanoTime() - downUntil > 0;
+        }
+
+        void markDown() {
+            downUntil = System.nanoTime() + retryAfterNanos;
+        }
+
+        void markUp() {
+            downUntil = 0;
+        }
+    }
+}
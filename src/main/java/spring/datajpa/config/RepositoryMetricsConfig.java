@@ -0,0 +1,37 @@
+package spring.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.monitoring.HibernateEventCountListener;
+import spring.datajpa.monitoring.RepositoryMetricsAspect;
+
+import java.util.Map;
+
+/**
+ * Repository 메서드 별 Micrometer 메트릭 (datajpa.metrics.repository.enabled=true 인 경우에만)
+ * - 설정하지 않으면 Aspect, Hibernate 리스너 모두 등록하지 않음 -> 오버헤드 없음
+ * - Spring Data Repository 기본 메트릭(spring.data.repository.invocations)과 Hibernate 통계(hibernate.*)는 Actuator 가 등록
+ * - 조회: /actuator/metrics/datajpa.repository.invocations (management.endpoints.web.exposure.include=metrics)
+ * */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.metrics.repository.enabled", havingValue = "true")
+public class RepositoryMetricsConfig {
+
+    @Bean
+    public RepositoryMetricsAspect repositoryMetricsAspect(MeterRegistry registry) {
+        return new RepositoryMetricsAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateEventCountCustomizer() {
+        HibernateEventCountListener listener = new HibernateEventCountListener();
+        return (Map<String, Object> properties) -> {
+            properties.put("hibernate.session.events.auto", HibernateEventCountListener.class.getName());
+            HibernateEventListeners.register(properties, registry -> registry.appendListeners(EventType.POST_LOAD, listener));
+        };
+    }
+}
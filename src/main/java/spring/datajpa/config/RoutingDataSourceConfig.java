@@ -0,0 +1,75 @@
+package spring.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 읽기/쓰기 분리 DataSource (datajpa.routing.enabled=true 인 경우에만)
+ * - @Transactional(readOnly = true) -> replica, 그 외 -> primary
+ * - 설정하지 않으면 spring.datasource.* 의 단일 DataSource 그대로 사용
+ * */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+    private ReplicaRoutingDataSource routingDataSource;
+    private ScheduledExecutorService healthCheckExecutor;
+
+    @Value("${datajpa.jdbc.prep-stmt-cache-size:500}")
+    private int statementCacheSize;
+
+    @Bean
+    public DataSource dataSource(RoutingDataSourceProperties properties) {
+        routingDataSource = new ReplicaRoutingDataSource(
+                createDataSource(properties.getPrimary(), "primary"),
+                IntStream.range(0, properties.getReplicas().size())
+                        .mapToObj(i -> createDataSource(properties.getReplicas().get(i), "replica-" + i))
+                        .toList(),
+                properties.getLagQuery(),
+                properties.getMaxLag(),
+                properties.getRetryAfter());
+
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthCheckExecutor = Executors.newSingleThreadScheduledExecutor();
+        healthCheckExecutor.scheduleWithFixedDelay(routingDataSource::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+
+        // 트랜잭션 시작 시점이 아니라 첫 SQL 실행 시점에 커넥션을 가져와야 readOnly 여부를 알 수 있음
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private DataSource createDataSource(RoutingDataSourceProperties.Node node, String poolName) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(node.getUrl())
+                .username(node.getUsername())
+                .password(node.getPassword())
+                .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+        JdbcStatementCacheConfig.applyStatementCache(dataSource, statementCacheSize);
+        return dataSource;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+        }
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package spring.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기/쓰기 분리 DataSource 설정
+ * <pre>
+ * datajpa.routing.enabled=true
+ * datajpa.routing.primary.url=jdbc:mysql://primary:3306/datajpa
+ * datajpa.routing.replicas[0].url=jdbc:mysql://replica1:3306/datajpa
+ * datajpa.routing.replicas[1].url=jdbc:mysql://replica2:3306/datajpa
+ * datajpa.routing.lag-query=select timestampdiff(second, max(ts), now()) from heartbeat
+ * </pre>
+ * */
+@Getter @Setter
+@ConfigurationProperties("datajpa.routing")
+public class RoutingDataSourceProperties {
+    private boolean enabled;
+    private Node primary = new Node();
+    private List<Node> replicas = new ArrayList<>();
+    // replica 에서 실행해서 복제 지연(초)을 첫 번째 컬럼으로 반환하는 쿼리 (없으면 연결만 확인)
+    private String lagQuery;
+    // 복제 지연이 이보다 크면 해당 replica 를 사용하지 않음
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    // 연결 실패한 replica 를 다시 사용하기까지 기다리는 시간
+    private Duration retryAfter = Duration.ofSeconds(30);
+
+    @Getter @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,33 @@
+package spring.datajpa.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Hibernate 2차 캐시 설정
+ * - JCache + Caffeine (in-process) 사용, region 별 크기/TTL 은 application.conf 에서 설정
+ * - 엔티티 캐시: Team, Member (@Cache), 쿼리 캐시: HINT_CACHEABLE 힌트를 준 쿼리
+ * - bulkAgePlus 같은 벌크 연산은 Hibernate 가 실행 시점에 관련 region 을 비워줌
+ * - 통계(hibernate.generate_statistics)는 datajpa.cache.statistics 로 켬, 기본값은 Repository 메트릭 설정을 따름 (꺼져 있으면 통계 비용 없음)
+ * */
+@Configuration
+public class SecondLevelCacheConfig {
+    @Value("${datajpa.cache.statistics:${datajpa.metrics.repository.enabled:false}}")
+    private boolean statistics;
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCachePropertiesCustomizer() {
+        return (Map<String, Object> properties) -> {
+            properties.putIfAbsent("hibernate.cache.use_second_level_cache", true);
+            properties.putIfAbsent("hibernate.cache.use_query_cache", true);
+            properties.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+            properties.putIfAbsent("hibernate.javax.cache.provider", CaffeineCachingProvider.class.getName());
+            properties.putIfAbsent("hibernate.generate_statistics", statistics);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package spring.datajpa.config;
+
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.repository.support.TeamMemberCountListener;
+
+import java.util.Map;
+
+/**
+ * Team.memberCount 를 Member 저장/삭제/팀 변경 시 함께 갱신
+ * */
+@Configuration
+public class TeamMemberCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer teamMemberCountCustomizer() {
+        TeamMemberCountListener listener = new TeamMemberCountListener();
+        return (Map<String, Object> properties) -> HibernateEventListeners.register(properties, registry -> {
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package spring.datajpa.dto;
+
+import spring.datajpa.entity.ChangeEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * ChangeEventRelay 가 발행하는 Member/Team 변경 이벤트 (change_event row 의 불변 복사본)
+ * - id 는 같은 aggregate 안에서 커밋 순서대로 증가 -> 소비하는 쪽에서 순서 확인/중복 제거에 사용
+ * */
+public record ChangeEventMessage(Long id, String aggregateType, Long aggregateId, ChangeEvent.Type type,
+                                 String payload, LocalDateTime createdAt) {
+
+    public static ChangeEventMessage of(ChangeEvent event) {
+        return new ChangeEventMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getType(), event.getPayload(), event.getCreatedAt());
+    }
+}
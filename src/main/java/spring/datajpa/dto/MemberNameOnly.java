@@ -0,0 +1,10 @@
+package spring.datajpa.dto;
+
+/**
+ * 인터페이스 기반 Projection (Closed Projection)
+ * - 필요한 컬럼(name)만 select, 엔티티를 만들지 않음
+ * - row 마다 Spring Data 가 프록시를 생성 -> 자주 호출하는 조회는 record 로 (MemberSummary)
+ * */
+public interface MemberNameOnly {
+    String getName();
+}
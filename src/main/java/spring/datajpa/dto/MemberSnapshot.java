@@ -0,0 +1,28 @@
+package spring.datajpa.dto;
+
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+
+import java.util.List;
+
+/**
+ * 캐시에 저장하는 Member 조회 결과 (MemberLookupCache)
+ * - 엔티티 대신 불변 record 로 저장 -> 영속성 컨텍스트/지연 로딩과 무관, 여러 스레드가 공유해도 안전
+ * - team 이 없으면 teamId, teamName 은 null
+ * */
+public record MemberSnapshot(Long id, String name, int age, Long teamId, String teamName) {
+
+    public static MemberSnapshot of(Member member) {
+        if (member == null) {
+            return null;
+        }
+        Team team = member.getTeam();
+        return new MemberSnapshot(member.getId(), member.getName(), member.getAge(),
+                team == null ? null : team.getId(),
+                team == null ? null : team.getName());
+    }
+
+    public static List<MemberSnapshot> of(List<Member> members) {
+        return members.stream().map(MemberSnapshot::of).toList();
+    }
+}
@@ -0,0 +1,10 @@
+package spring.datajpa.dto;
+
+/**
+ * 클래스(record) 기반 Projection
+ * - findSummaryByAge: 스칼라 컬럼(m.id, m.name, m.age)을 조회해서 생성자를 직접 호출 (MemberRepositoryImpl)
+ *   -> row 마다 프록시나 리플렉션(Constructor.newInstance) 없음
+ * - 동적 Projection(findProjectionsByName)으로 사용하면 Spring Data 가 리플렉션으로 생성
+ * */
+public record MemberSummary(Long id, String name, int age) {
+}
@@ -0,0 +1,10 @@
+package spring.datajpa.dto;
+
+/**
+ * Member 와 연관된 Team 이름을 함께 조회하는 Projection (MemberRepositoryImpl.findTeamViewByAge)
+ * - 중첩 인터페이스 Projection(getTeam())은 Team 엔티티 전체를 조회해서 영속성 컨텍스트에 등록하므로
+ *   team 이름을 스칼라 컬럼(teamName)으로 펼쳐서 조회
+ * - team 이 없으면 teamName 은 null
+ * */
+public record MemberTeamView(Long id, String name, String teamName) {
+}
@@ -0,0 +1,7 @@
+package spring.datajpa.dto;
+
+/**
+ * Team 별 Member 수 (Team.memberCount)
+ * */
+public record TeamMemberCount(Long teamId, int memberCount) {
+}
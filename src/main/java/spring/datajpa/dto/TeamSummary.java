@@ -0,0 +1,8 @@
+package spring.datajpa.dto;
+
+/**
+ * 클래스(record) 기반 Projection
+ * - findSummaryBy: 스칼라 컬럼을 조회해서 생성자를 직접 호출 (TeamRepositoryImpl, 리플렉션 없음)
+ * */
+public record TeamSummary(Long id, String name) {
+}
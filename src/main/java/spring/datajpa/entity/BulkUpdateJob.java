@@ -0,0 +1,42 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * chunk 단위 벌크 수정(MemberChunkedBulkUpdater)의 진행 상황 (bulk_update_job 테이블)
+ * - 시작 시점의 대상 id 범위와 chunk 크기를 저장 -> 재시작 후에도 같은 chunk 로 나눔
+ * - 완료된 chunk 는 BulkUpdateJobChunk 로 chunk 의 UPDATE 와 같은 트랜잭션에서 추가
+ *   -> 커밋된 chunk 만 완료로 남으므로 재실행해도 같은 chunk 를 두 번 수정하지 않음
+ * */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "age", "minId", "maxId", "chunkSize"})
+public class BulkUpdateJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bulk_update_job_id")
+    private Long id;
+
+    private int age;
+    private long minId;
+    private long maxId;
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public BulkUpdateJob(int age, long minId, long maxId, int chunkSize) {
+        this.age = age;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.chunkSize = chunkSize;
+        this.createdAt = LocalDateTime.now();
+    }
+}
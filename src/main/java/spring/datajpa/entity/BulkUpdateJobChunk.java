@@ -0,0 +1,41 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * BulkUpdateJob 의 완료된 chunk 하나 (bulk_update_job_chunk 테이블)
+ * - chunk 의 UPDATE 와 같은 트랜잭션에서 INSERT 만 함 -> 이전에 완료된 chunk 를 읽지 않음
+ * - (job, from_id) 유니크 -> 같은 chunk 가 두 번 완료로 기록되면 해당 chunk 트랜잭션이 롤백됨
+ * */
+@Entity
+@Table(name = "bulk_update_job_chunk",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"bulk_update_job_id", "from_id"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "fromId", "updatedRows"})
+public class BulkUpdateJobChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bulk_update_job_chunk_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bulk_update_job_id", nullable = false)
+    private BulkUpdateJob job;
+
+    @Column(name = "from_id", nullable = false)
+    private long fromId;
+
+    @Column(name = "updated_rows", nullable = false)
+    private int updatedRows;
+
+    public BulkUpdateJobChunk(BulkUpdateJob job, long fromId, int updatedRows) {
+        this.job = job;
+        this.fromId = fromId;
+        this.updatedRows = updatedRows;
+    }
+}
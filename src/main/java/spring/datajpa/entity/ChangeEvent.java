@@ -0,0 +1,55 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member/Team 변경 이벤트 outbox (change_event 테이블)
+ * - 변경과 같은 트랜잭션에서 JDBC 로 INSERT (ChangeEventListener, MemberBulkChangeEventAspect, MemberWriteBehindBuffer)
+ * - 커밋된 row 만 ChangeEventRelay 가 id 순서로 읽어서 발행 후 삭제
+ * - aggregateId: 변경된 Member/Team 의 id, 벌크 연산도 대상 row 마다 이벤트 1개 (MemberBulkChangeEventAspect)
+ * */
+@Entity
+@Table(name = "change_event")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class ChangeEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED, BULK_UPDATED, BULK_DELETED
+    }
+
+    //auto increment - 커밋 직전에 INSERT 하므로 같은 Member/Team 의 이벤트는 커밋 순서대로 id 가 증가
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_event_id")
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String aggregateType;
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    //변경된 필드(JSON) - CREATED: 전체, UPDATED: 바뀐 필드만, DELETED: 삭제 전 값, BULK_*: 연산 이름과 파라미터
+    @Column(length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public ChangeEvent(String aggregateType, Long aggregateId, Type type, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -2,8 +2,12 @@ package spring.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member") //2차 캐시 - 설정은 application.conf
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //기본 생성자의 access level을 protected로 설정
 // JPA에서 Entity는 기본 생성자가 필요하며, private으로 설정하면 안 됨. protected까지는 열어둬야 함
@@ -16,14 +20,32 @@ import lombok.*;
         name = "Member.all",
         attributeNodes = @NamedAttributeNode("team")
 )
+//파티션 안에서 조회하는 쿼리용 - 파티션 키를 선두 컬럼으로 (파티셔닝하지 않은 DB 에서도 파티션 범위만 읽음)
+@Table(indexes = {
+        @Index(name = "idx_member_partition_age", columnList = "partition_key, age"),
+        @Index(name = "idx_member_partition_name", columnList = "partition_key, name")
+})
 public class Member {
-    @Id @GeneratedValue
+    public static final int DEFAULT_PARTITION_KEY = 0;
+
+    //IDENTITY 는 INSERT 배치가 불가능하므로 SEQUENCE(pooled) 사용 - MySQL 에서는 member_seq 테이블로 동작
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String name;
     private int age;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    //파티션 키(tenant) - 생성 시 정하고 바꾸지 않음 (바꾸면 row 가 다른 파티션으로 이동해야 함)
+    @Column(name = "partition_key", nullable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private int partitionKey = DEFAULT_PARTITION_KEY;
+
+    @Version //낙관적 락 - UPDATE ... WHERE version = ? 로 동시 수정 감지 (OptimisticRetryExecutor 로 재시도)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY) //바이트코드 향상 시 프록시 대신 Team 인스턴스 자체를 지연 로딩
     @JoinColumn(name = "team_id")
     private Team team;
 
@@ -39,6 +61,15 @@ public class Member {
         }
     }
 
+    //partitionKey 상한(datajpa.partition.count)은 저장 시 MemberPartitionKeyValidator 에서 확인
+    public Member(String name, int age, Team team, int partitionKey) {
+        this(name, age, team);
+        if (partitionKey < 0) {
+            throw new IllegalArgumentException("partition key must not be negative: " + partitionKey);
+        }
+        this.partitionKey = partitionKey;
+    }
+
     public Member(String name, int age) {
         this.name = name;
         this.age = age;
@@ -46,6 +77,6 @@ public class Member {
 
     public void changeTeam(Team team) {
         this.team = team;
-        team.addMember(this);
+        team.addMember(this); //초기화되지 않은 Team.members 는 로딩하지 않음
     }
 }
@@ -2,20 +2,42 @@ package spring.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team") //2차 캐시 - 설정은 application.conf
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //기본 생성자의 access level을 protected로 설정
 @ToString(of = {"id", "name"})
+@BatchSize(size = 100) //Member.team 프록시 초기화 시 Team 을 IN (...) 으로 묶어서 조회
 public class Team {
-    @Id @GeneratedValue
+    //IDENTITY 는 INSERT 배치가 불가능하므로 SEQUENCE(pooled) 사용 - MySQL 에서는 team_seq 테이블로 동작
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Version //낙관적 락 - UPDATE ... WHERE version = ? 로 동시 수정 감지 (OptimisticRetryExecutor 로 재시도)
+    private Long version;
+
+    //members.size() 대신 사용 - TeamMemberCountListener 가 UPDATE ... SET member_count = member_count + ? 로만 갱신
+    //엔티티에서는 읽기 전용 (같은 트랜잭션에서 바뀐 값은 커밋 후에 반영됨)
+    @ColumnDefault("0")
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private int memberCount;
+
+    @BatchSize(size = 100) //여러 Team 의 members 초기화 시 IN (...) 으로 묶어서 조회
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -23,7 +45,11 @@ public class Team {
         this.name = name;
     }
 
+    //초기화되지 않은 members 는 로딩하지 않음 (inverse 컬렉션이므로 add 는 초기화 시점까지 보관됨)
     public void addMember(Member member) {
+        if (Hibernate.isInitialized(members) && members.contains(member)) { //이미 추가된 경우
+            return;
+        }
         members.add(member);
     }
 }
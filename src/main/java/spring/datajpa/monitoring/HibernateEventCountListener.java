@@ -0,0 +1,28 @@
+package spring.datajpa.monitoring;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Hibernate 이벤트를 HibernateEventCounter 에 전달
+ * - SessionEventListener: flush, 2차 캐시 조회 (hibernate.session.events.auto 로 세션마다 생성)
+ * - PostLoadEventListener: 엔티티 로딩 (Integrator 로 등록)
+ * */
+public class HibernateEventCountListener implements SessionEventListener, PostLoadEventListener {
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        HibernateEventCounter.flushed();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        HibernateEventCounter.cacheGet(hit);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        HibernateEventCounter.entityLoaded();
+    }
+}
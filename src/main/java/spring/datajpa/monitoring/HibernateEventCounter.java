@@ -0,0 +1,80 @@
+package spring.datajpa.monitoring;
+
+/**
+ * 현재 스레드에서 발생한 Hibernate 이벤트(엔티티 로딩, flush, 2차 캐시 조회) 집계
+ * - 이벤트는 HibernateEventCountListener 가 전달 (datajpa.metrics.repository.enabled=true 인 경우에만 등록)
+ * - 범위는 중첩 가능하며, 이벤트는 열려 있는 모든 범위에 더해짐
+ * */
+public final class HibernateEventCounter {
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private HibernateEventCounter() {
+    }
+
+    public static Counts start() {
+        Counts counts = new Counts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    static void entityLoaded() {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.entitiesLoaded++;
+        }
+    }
+
+    static void flushed() {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            counts.flushes++;
+        }
+    }
+
+    static void cacheGet(boolean hit) {
+        for (Counts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            if (hit) {
+                counts.cacheHits++;
+            } else {
+                counts.cacheMisses++;
+            }
+        }
+    }
+
+    public static class Counts implements AutoCloseable {
+        private final Counts parent;
+        private int entitiesLoaded;
+        private int flushes;
+        private int cacheHits;
+        private int cacheMisses;
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+
+        public int getFlushes() {
+            return flushes;
+        }
+
+        public int getCacheHits() {
+            return cacheHits;
+        }
+
+        public int getCacheMisses() {
+            return cacheMisses;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package spring.datajpa.monitoring;
+
+/**
+ * 쿼리 예산
+ * - maxStatements: 범위(트랜잭션, HTTP 요청 등) 안에서 실행할 수 있는 SQL 수 (0 이하면 제한 없음)
+ * - maxRepeated: 같은 모양의 SQL 을 반복 실행할 수 있는 수 (0 이하면 제한 없음) -> N+1 감지
+ * - failOnExceed: true 면 예산 초과 시 QueryBudgetExceededException, false 면 경고 로그만
+ * */
+public record QueryBudget(int maxStatements, int maxRepeated, boolean failOnExceed) {
+    public static final QueryBudget UNLIMITED = new QueryBudget(0, 0, false);
+
+    boolean isStatementLimitExceeded(int statementCount) {
+        return maxStatements > 0 && statementCount > maxStatements;
+    }
+
+    boolean isRepeatLimitExceeded(int repeatedCount) {
+        return maxRepeated > 0 && repeatedCount > maxRepeated;
+    }
+}
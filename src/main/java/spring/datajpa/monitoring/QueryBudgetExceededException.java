@@ -0,0 +1,10 @@
+package spring.datajpa.monitoring;
+
+/**
+ * 쿼리 예산 초과 (QueryBudget.failOnExceed = true 인 경우)
+ * */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
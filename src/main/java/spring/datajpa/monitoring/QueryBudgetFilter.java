@@ -0,0 +1,37 @@
+package spring.datajpa.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * HTTP 요청 하나에서 실행되는 SQL 수 집계 및 예산 적용
+ * - 요청 예산: datajpa.query-budget.request.*
+ * */
+@Slf4j
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private final QueryBudget requestBudget;
+
+    public QueryBudgetFilter(@Value("${datajpa.query-budget.request.max-statements:50}") int maxStatements,
+                             @Value("${datajpa.query-budget.request.max-repeated:10}") int maxRepeated,
+                             @Value("${datajpa.query-budget.request.fail-on-exceed:false}") boolean failOnExceed) {
+        this.requestBudget = new QueryBudget(maxStatements, maxRepeated, failOnExceed);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryCounter.Scope scope = QueryCounter.start(request.getMethod() + " " + request.getRequestURI(), requestBudget)) {
+            filterChain.doFilter(request, response);
+            log.debug("{}", scope);
+        }
+    }
+}
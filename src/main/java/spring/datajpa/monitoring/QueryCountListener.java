@@ -0,0 +1,51 @@
+package spring.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 로 감싼 DataSource 에서 실행되는 모든 SQL 을 QueryCounter 에 전달
+ * - 트랜잭션 안에서 처음 실행되는 SQL 시점에 트랜잭션 범위를 열고, 트랜잭션이 끝나면 닫음
+ * - 트랜잭션 예산: datajpa.query-budget.transaction.*
+ * */
+@Component
+public class QueryCountListener extends SimpleJdbcEventListener {
+    private static final Object TRANSACTION_SCOPE_KEY = QueryCountListener.class.getName() + ".TRANSACTION_SCOPE";
+
+    private final QueryBudget transactionBudget;
+
+    public QueryCountListener(@Value("${datajpa.query-budget.transaction.max-statements:0}") int maxStatements,
+                              @Value("${datajpa.query-budget.transaction.max-repeated:10}") int maxRepeated,
+                              @Value("${datajpa.query-budget.transaction.fail-on-exceed:false}") boolean failOnExceed) {
+        this.transactionBudget = new QueryBudget(maxStatements, maxRepeated, failOnExceed);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        openTransactionScope();
+        QueryCounter.record(statementInformation.getSql());
+    }
+
+    private void openTransactionScope() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TRANSACTION_SCOPE_KEY)) {
+            return;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        QueryCounter.Scope scope = QueryCounter.start(name == null ? "transaction" : name, transactionBudget);
+        TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE_KEY, scope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE_KEY);
+                scope.close();
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package spring.datajpa.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 현재 스레드에서 실행된 SQL 수를 범위(Scope) 별로 집계
+ * - SQL 실행 정보는 QueryCountListener(p6spy) 가 전달
+ * - 범위는 중첩 가능: HTTP 요청(QueryBudgetFilter) > 트랜잭션(QueryCountListener) > 직접 연 범위(start)
+ * - 같은 모양의 SQL(파라미터만 다른 SQL)이 반복되면 N+1 로 판단
+ *
+ * <pre>
+ * try (QueryCounter.Scope scope = QueryCounter.start("findMemberLazy")) {
+ *     ...
+ *     scope.assertStatementCount(2);
+ * }
+ * </pre>
+ * */
+@Slf4j
+public final class QueryCounter {
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+    // SQL 에 직접 들어간 문자열/숫자 리터럴 -> ? 로 바꿔서 같은 모양으로 집계
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+
+    private QueryCounter() {
+    }
+
+    public static Scope start(String name) {
+        return start(name, QueryBudget.UNLIMITED);
+    }
+
+    public static Scope start(String name, QueryBudget budget) {
+        Scope scope = new Scope(name, budget);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    public static boolean isActive() {
+        return !SCOPES.get().isEmpty();
+    }
+
+    static void record(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty() || sql == null) {
+            return;
+        }
+        String shape = LITERALS.matcher(sql.trim()).replaceAll("?");
+        for (Scope scope : scopes) {
+            scope.record(shape);
+        }
+    }
+
+    public static class Scope implements AutoCloseable {
+        private final String name;
+        private final QueryBudget budget;
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int statementCount;
+        private boolean exceeded;
+
+        private Scope(String name, QueryBudget budget) {
+            this.name = name;
+            this.budget = budget;
+        }
+
+        private void record(String shape) {
+            statementCount++;
+            int repeated = statements.merge(shape, 1, Integer::sum);
+
+            if (exceeded) {
+                return; // 초과는 범위 당 한 번만 알림
+            }
+            String violation = null;
+            if (budget.isStatementLimitExceeded(statementCount)) {
+                violation = "[" + name + "] query budget exceeded: " + statementCount + " statements (max " + budget.maxStatements() + ")";
+            } else if (budget.isRepeatLimitExceeded(repeated)) {
+                violation = "[" + name + "] possible N+1: same statement executed " + repeated + " times (max " + budget.maxRepeated() + "): " + shape;
+            }
+            if (violation != null) {
+                exceeded = true;
+                if (budget.failOnExceed()) {
+                    throw new QueryBudgetExceededException(violation);
+                }
+                log.warn(violation);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getStatementCount() {
+            return statementCount;
+        }
+
+        public boolean isExceeded() {
+            return exceeded;
+        }
+
+        //같은 모양의 SQL 이 threshold 번 이상 실행된 목록 (SQL -> 실행 횟수)
+        public Map<String, Integer> getRepeatedStatements(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.forEach((shape, count) -> {
+                if (count >= threshold) {
+                    repeated.put(shape, count);
+                }
+            });
+            return Collections.unmodifiableMap(repeated);
+        }
+
+        public void assertStatementCount(int expected) {
+            if (statementCount != expected) {
+                throw new AssertionError("[" + name + "] expected " + expected + " statements but was " + statementCount + ": " + statements.keySet());
+            }
+        }
+
+        public void assertMaxStatementCount(int max) {
+            if (statementCount > max) {
+                throw new AssertionError("[" + name + "] expected at most " + max + " statements but was " + statementCount + ": " + statements.keySet());
+            }
+        }
+
+        public void assertNoRepeatedStatements(int threshold) {
+            Map<String, Integer> repeated = getRepeatedStatements(threshold);
+            if (!repeated.isEmpty()) {
+                throw new AssertionError("[" + name + "] repeated statements (N+1): " + repeated);
+            }
+        }
+
+        @Override
+        public void close() {
+            SCOPES.get().remove(this);
+        }
+
+        @Override
+        public String toString() {
+            return name + "{statements=" + statementCount + "}";
+        }
+    }
+}
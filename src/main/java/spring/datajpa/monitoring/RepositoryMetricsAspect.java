@@ -0,0 +1,140 @@
+package spring.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ClassUtils;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository 메서드 별 메트릭 (RepositoryMetricsConfig 에서 등록)
+ * - datajpa.repository.invocations: 실행 시간 (Timer, histogram)
+ * - datajpa.repository.rows: 반환한 row 수
+ * - datajpa.repository.statements: 실행한 SQL 수 (QueryCounter)
+ * - datajpa.repository.entities.loaded / flushes / cache.hits / cache.misses: Hibernate 이벤트 수 (HibernateEventCounter)
+ * - 공통 태그: repository, method (+ invocations 는 outcome)
+ * - 대상: MemberRepository, TeamRepository, MemberJpaRepository, TeamJpaRepository (BatchPersister 같은 보조 Bean 은 제외)
+ * */
+@Aspect
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    private final MeterRegistry registry;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("this(spring.datajpa.repository.MemberRepository) || this(spring.datajpa.repository.TeamRepository) " +
+            "|| within(spring.datajpa.repository.pure_jpa.MemberJpaRepository) " +
+            "|| within(spring.datajpa.repository.pure_jpa.TeamJpaRepository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.computeIfAbsent(method,
+                m -> new MethodMeters(registry, repositoryName(joinPoint), m.getName()));
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try (QueryCounter.Scope statements = QueryCounter.start(method.getName());
+             HibernateEventCounter.Counts events = HibernateEventCounter.start()) {
+            Object result = joinPoint.proceed();
+            methodMeters.record(rowCount(result), statements, events);
+            return result;
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            methodMeters.timer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        if (joinPoint.getThis() instanceof MemberRepository) {
+            return MemberRepository.class.getSimpleName();
+        }
+        if (joinPoint.getThis() instanceof TeamRepository) {
+            return TeamRepository.class.getSimpleName();
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    private static class MethodMeters {
+        private final MeterRegistry registry;
+        private final String repository;
+        private final String method;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+        private final DistributionSummary rows;
+        private final DistributionSummary statements;
+        private final DistributionSummary entitiesLoaded;
+        private final DistributionSummary flushes;
+        private final DistributionSummary cacheHits;
+        private final DistributionSummary cacheMisses;
+
+        MethodMeters(MeterRegistry registry, String repository, String method) {
+            this.registry = registry;
+            this.repository = repository;
+            this.method = method;
+            this.rows = summary("datajpa.repository.rows");
+            this.statements = summary("datajpa.repository.statements");
+            this.entitiesLoaded = summary("datajpa.repository.entities.loaded");
+            this.flushes = summary("datajpa.repository.flushes");
+            this.cacheHits = summary("datajpa.repository.cache.hits");
+            this.cacheMisses = summary("datajpa.repository.cache.misses");
+        }
+
+        private DistributionSummary summary(String name) {
+            return DistributionSummary.builder(name)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(registry);
+        }
+
+        Timer timer(String outcome) {
+            return timers.computeIfAbsent(outcome, o -> Timer.builder("datajpa.repository.invocations")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", o)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+
+        void record(long rowCount, QueryCounter.Scope statementScope, HibernateEventCounter.Counts events) {
+            rows.record(rowCount);
+            statements.record(statementScope.getStatementCount());
+            entitiesLoaded.record(events.getEntitiesLoaded());
+            flushes.record(events.getFlushes());
+            cacheHits.record(events.getCacheHits());
+            cacheMisses.record(events.getCacheMisses());
+        }
+    }
+}
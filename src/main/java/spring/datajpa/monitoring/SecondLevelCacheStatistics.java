@@ -0,0 +1,56 @@
+package spring.datajpa.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * 2차 캐시 region 별 통계
+ * - hit / miss / put: Hibernate Statistics (datajpa.cache.statistics=true 필요)
+ * - eviction: JCache 통계 MBean (application.conf 의 monitoring.statistics=true 필요)
+ * */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheStatistics {
+    private final EntityManagerFactory emf;
+
+    public RegionStats region(String regionName) {
+        CacheRegionStatistics stats = emf.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getCacheRegionStatistics(regionName);
+        if (stats == null) {
+            return new RegionStats(regionName, 0, 0, 0, 0);
+        }
+        return new RegionStats(regionName, stats.getHitCount(), stats.getMissCount(),
+                stats.getPutCount(), evictionCount(regionName));
+    }
+
+    private long evictionCount(String regionName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + regionName + ",*"), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+            return evictions;
+        } catch (Exception e) {
+            return -1; // 통계 MBean 을 읽을 수 없는 경우
+        }
+    }
+
+    public record RegionStats(String region, long hitCount, long missCount, long putCount, long evictionCount) {
+        public double hitRatio() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+    }
+}
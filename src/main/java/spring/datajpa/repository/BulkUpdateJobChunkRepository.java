@@ -0,0 +1,20 @@
+package spring.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import spring.datajpa.entity.BulkUpdateJobChunk;
+
+import java.util.List;
+
+/**
+ * BulkUpdateJob 의 완료된 chunk 저장/조회
+ * - 재시작 시 엔티티 대신 필요한 값(from_id, 수정된 row 수 합계)만 조회
+ * */
+public interface BulkUpdateJobChunkRepository extends JpaRepository<BulkUpdateJobChunk, Long> {
+    @Query("select c.fromId from BulkUpdateJobChunk c where c.job.id = :jobId")
+    List<Long> findCompletedFromIds(@Param("jobId") Long jobId);
+
+    @Query("select coalesce(sum(c.updatedRows), 0) from BulkUpdateJobChunk c where c.job.id = :jobId")
+    long sumUpdatedRows(@Param("jobId") Long jobId);
+}
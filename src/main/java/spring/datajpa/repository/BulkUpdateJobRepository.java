@@ -0,0 +1,10 @@
+package spring.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import spring.datajpa.entity.BulkUpdateJob;
+
+/**
+ * MemberChunkedBulkUpdater 의 진행 상황 저장
+ * */
+public interface BulkUpdateJobRepository extends JpaRepository<BulkUpdateJob, Long> {
+}
@@ -0,0 +1,186 @@
+package spring.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.ChangeEvent;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.support.ChangeEventOutbox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 벌크 연산을 change_event(outbox)에 기록 - Hibernate 이벤트가 발생하지 않는 경로
+ * - Spring Data JPA: bulkAgePlus, delete*InBatch / 순수 JPA: bulkAgePlus (MemberChunkedBulkUpdater 포함)
+ * - 대상 row 마다 이벤트 1개 (aggregateId = 수정/삭제된 id, payload = 연산 이름 + id 목록을 제외한 파라미터)
+ *   -> 벌크 연산 직전에 같은 조건으로 대상 id 를 select ... for update 로 잠그고 조회
+ *      (잠근 row 는 다른 트랜잭션이 바꿀 수 없으므로 조회한 id = 벌크 연산이 바꾼 id)
+ *   -> 없는 id 로 삭제를 요청한 경우 이벤트 없음
+ * - 이벤트 INSERT 는 event-chunk-size 개씩 JDBC batch 로 나눠서 실행
+ * - 벌크 연산과 이벤트 INSERT 를 같은 트랜잭션으로 묶음 (이미 트랜잭션 안이면 참여)
+ * */
+@Aspect
+@Component
+public class MemberBulkChangeEventAspect {
+    private static final Aggregate MEMBER = new Aggregate(Member.class.getSimpleName(), "member", "member_id");
+    private static final Aggregate TEAM = new Aggregate(Team.class.getSimpleName(), "team", "team_id");
+    private static final int EXPECTED_SIZE = 1024;
+
+    private final ChangeEventOutbox outbox;
+    private final TransactionTemplate transaction;
+    private final EntityManager em;
+    private final int inListChunkSize;
+    private final int eventChunkSize;
+
+    public MemberBulkChangeEventAspect(ChangeEventOutbox outbox, PlatformTransactionManager transactionManager, EntityManager em,
+                                       @Value("${datajpa.in-list.chunk-size:1000}") int inListChunkSize,
+                                       @Value("${datajpa.outbox.event-chunk-size:1000}") int eventChunkSize) {
+        this.outbox = outbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.em = em;
+        this.inListChunkSize = inListChunkSize;
+        this.eventChunkSize = eventChunkSize;
+    }
+
+    @Around("args(age) && ((this(spring.datajpa.repository.MemberRepository) && execution(* bulkAgePlus(int))) || " +
+            "execution(* spring.datajpa.repository.pure_jpa.MemberJpaRepository.bulkAgePlus(int)))")
+    public Object recordBulkUpdate(ProceedingJoinPoint joinPoint, int age) throws Throwable {
+        return record(joinPoint, MEMBER, ChangeEvent.Type.BULK_UPDATED, () -> PrimitiveIds.query(em,
+                "select member_id from member where age >= ? for update",
+                EXPECTED_SIZE, ps -> ps.setInt(1, age)));
+    }
+
+    @Around("this(spring.datajpa.repository.MemberRepository) && execution(* bulkAgePlus(int, int)) && args(partitionKey, age)")
+    public Object recordPartitionBulkUpdate(ProceedingJoinPoint joinPoint, int partitionKey, int age) throws Throwable {
+        return record(joinPoint, MEMBER, ChangeEvent.Type.BULK_UPDATED, () -> PrimitiveIds.query(em,
+                "select member_id from member where partition_key = ? and age >= ? for update",
+                EXPECTED_SIZE, ps -> {
+                    ps.setInt(1, partitionKey);
+                    ps.setInt(2, age);
+                }));
+    }
+
+    @Around("execution(* spring.datajpa.repository.pure_jpa.MemberJpaRepository.bulkAgePlus(int, long, long)) && args(age, fromId, toId)")
+    public Object recordRangeBulkUpdate(ProceedingJoinPoint joinPoint, int age, long fromId, long toId) throws Throwable {
+        return record(joinPoint, MEMBER, ChangeEvent.Type.BULK_UPDATED, () -> PrimitiveIds.query(em,
+                "select member_id from member where age >= ? and member_id >= ? and member_id < ? for update",
+                EXPECTED_SIZE, ps -> {
+                    ps.setInt(1, age);
+                    ps.setLong(2, fromId);
+                    ps.setLong(3, toId);
+                }));
+    }
+
+    @Around("this(spring.datajpa.repository.MemberRepository) && execution(* delete*InBatch(..))")
+    public Object recordMemberBulkDelete(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, MEMBER, ChangeEvent.Type.BULK_DELETED, () -> deletedIds(MEMBER, joinPoint.getArgs()));
+    }
+
+    @Around("this(spring.datajpa.repository.TeamRepository) && execution(* delete*InBatch(..))")
+    public Object recordTeamBulkDelete(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, TEAM, ChangeEvent.Type.BULK_DELETED, () -> deletedIds(TEAM, joinPoint.getArgs()));
+    }
+
+    private Object record(ProceedingJoinPoint joinPoint, Aggregate aggregate, ChangeEvent.Type type,
+                          Supplier<long[]> affectedIds) throws Throwable {
+        try {
+            return transaction.execute(status -> {
+                long[] ids = affectedIds.get();
+                Object result = proceed(joinPoint);
+                append(aggregate, type, ids, payload(joinPoint));
+                return result;
+            });
+        } catch (ProceedingException e) {
+            throw e.getCause();
+        }
+    }
+
+    //deleteAllInBatch() 는 전체, 그 외에는 파라미터의 id 중 존재하는 id
+    private long[] deletedIds(Aggregate aggregate, Object[] args) {
+        if (args.length == 0) {
+            return PrimitiveIds.query(em, "select " + aggregate.idColumn() + " from " + aggregate.table() + " for update",
+                    EXPECTED_SIZE, ps -> {
+                    });
+        }
+        return PrimitiveIds.queryIn(em, "select " + aggregate.idColumn() + " from " + aggregate.table()
+                + " where " + aggregate.idColumn() + " in ", toIds(args[0]), inListChunkSize, " for update");
+    }
+
+    private void append(Aggregate aggregate, ChangeEvent.Type type, long[] ids, String payload) {
+        for (int from = 0; from < ids.length; from += eventChunkSize) {
+            int to = Math.min(from + eventChunkSize, ids.length);
+            List<ChangeEvent> events = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                events.add(new ChangeEvent(aggregate.name(), ids[i], type, payload));
+            }
+            outbox.append(events);
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ProceedingException(e);
+        }
+    }
+
+    //id 목록 파라미터는 aggregateId 로 기록하므로 제외
+    private static String payload(ProceedingJoinPoint joinPoint) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("operation", joinPoint.getSignature().getName());
+        List<Object> args = Arrays.stream(joinPoint.getArgs())
+                .filter(arg -> !(arg instanceof long[]) && !(arg instanceof Iterable<?>))
+                .toList();
+        if (!args.isEmpty()) {
+            payload.put("args", args);
+        }
+        return ChangeEventOutbox.payload(payload);
+    }
+
+    //long[], Iterable<Long>, Iterable<Member/Team> -> long[] (id 가 없는 엔티티는 제외)
+    private static long[] toIds(Object arg) {
+        if (arg instanceof long[] ids) {
+            return ids;
+        }
+        List<Long> ids = new ArrayList<>();
+        if (arg instanceof Iterable<?> iterable) {
+            iterable.forEach(value -> ids.add(toId(value)));
+        }
+        return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+    }
+
+    private static Long toId(Object value) {
+        if (value instanceof Member member) {
+            return member.getId();
+        }
+        if (value instanceof Team team) {
+            return team.getId();
+        }
+        return (Long) value;
+    }
+
+    private record Aggregate(String name, String table, String idColumn) {
+    }
+
+    //checked 예외를 TransactionTemplate 밖으로 전달 (롤백 후 원래 예외로 다시 던짐)
+    private static class ProceedingException extends RuntimeException {
+        ProceedingException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
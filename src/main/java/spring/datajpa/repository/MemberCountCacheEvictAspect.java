@@ -0,0 +1,48 @@
+package spring.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Member 를 변경하는 Repository 메서드 호출 후 TotalCountCache 무효화
+ * - Spring Data JPA: save*, delete*, bulkAgePlus
+ * - 순수 JPA: save*, delete, bulkAgePlus
+ * - 트랜잭션 안에서 호출됐으면 지금 한 번, 트랜잭션이 끝난 후 한 번 더 무효화
+ *   -> 지금: 같은 트랜잭션의 다음 조회가 이전 count 를 읽지 않도록
+ *   -> 끝난 후: 커밋 전에 다른 트랜잭션이 다시 캐시한 이전 count, 롤백된 count 제거
+ * */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheEvictAspect {
+    private final TotalCountCache countCache;
+
+    @AfterReturning("this(spring.datajpa.repository.MemberRepository) && " +
+            "(execution(* save*(..)) || execution(* delete*(..)) || execution(* bulkAgePlus(..)))")
+    public void evictOnMemberRepositoryWrite() {
+        invalidateAll();
+    }
+
+    @AfterReturning("execution(* spring.datajpa.repository.pure_jpa.MemberJpaRepository.save*(..)) || " +
+            "execution(* spring.datajpa.repository.pure_jpa.MemberJpaRepository.delete(..)) || " +
+            "execution(* spring.datajpa.repository.pure_jpa.MemberJpaRepository.bulkAgePlus(..))")
+    public void evictOnMemberJpaRepositoryWrite() {
+        invalidateAll();
+    }
+
+    private void invalidateAll() {
+        countCache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    countCache.invalidateAll();
+                }
+            });
+        }
+    }
+}
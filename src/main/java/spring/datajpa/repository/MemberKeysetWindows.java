@@ -0,0 +1,66 @@
+package spring.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import spring.datajpa.entity.Member;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Member 의 Keyset(Seek) 페이징 - age 조건, (name desc nulls last, id desc) 순서
+ * - MemberRepository.findWindowByAgeOrderByNameDescIdDesc, MemberJpaRepository.findByPageAfter 가 같은 쿼리를 사용
+ *   -> Spring Data 가 만드는 keyset 조건(name < :name)은 name 이 null 인 Member 를 첫 페이지 이후에 빠뜨림
+ * - 마지막으로 읽은 (name, id) 다음 데이터부터 limit 개 조회, offset 을 사용하지 않으므로 깊은 페이지도 첫 페이지와 같은 비용
+ * - name 이 null 인 Member 는 마지막에 -> 마지막으로 읽은 name 이 null 이면 null 인 Member 중 id 로만 비교
+ * - 다음 페이지 존재 여부는 limit + 1 개를 조회해서 판단
+ * - 앞으로(forward)만 지원, backward 위치는 예외
+ * */
+public final class MemberKeysetWindows {
+
+    private MemberKeysetWindows() {
+    }
+
+    public static Window<Member> findByAgeAfter(EntityManager em, int age, KeysetScrollPosition position, int limit) {
+        if (position.scrollsBackward()) {
+            throw new IllegalArgumentException("backward keyset scrolling is not supported: " + position);
+        }
+        Map<String, ?> keys = position.getKeys();
+        boolean initial = keys.isEmpty();
+        boolean nullName = !initial && keys.get("name") == null;
+
+        String jpql = "select m from Member m where m.age=:age";
+        if (nullName) {
+            jpql += " and m.name is null and m.id < :id";
+        } else if (!initial) {
+            jpql += " and (m.name < :name or (m.name = :name and m.id < :id) or m.name is null)";
+        }
+        jpql += " order by m.name desc nulls last, m.id desc";
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class)
+                .setParameter("age", age)
+                .setMaxResults(limit + 1);
+        if (!initial) {
+            query.setParameter("id", keys.get("id"));
+            if (!nullName) {
+                query.setParameter("name", keys.get("name"));
+            }
+        }
+        List<Member> result = query.getResultList();
+
+        boolean hasNext = result.size() > limit;
+        List<Member> content = hasNext ? result.subList(0, limit) : result;
+        return Window.from(content, index -> keysetOf(content.get(index)), hasNext);
+    }
+
+    private static ScrollPosition keysetOf(Member member) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("name", member.getName());
+        keys.put("id", member.getId());
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,58 @@
+package spring.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.datajpa.repository.support.MemberLookupCache;
+
+/**
+ * 벌크 연산 후 MemberLookupCache 전체 무효화
+ * - 벌크 연산은 Hibernate 이벤트가 발생하지 않고 어떤 이름이 바뀌었는지도 모름
+ * - Spring Data JPA: bulkAgePlus, delete*InBatch / 순수 JPA: bulkAgePlus (MemberChunkedBulkUpdater 포함)
+ * - MemberLookupCache 는 Repository 를 주입받으므로 순환 참조를 피하려고 CacheManager 를 직접 사용
+ * */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberLookupCacheEvictAspect {
+    private final CacheManager cacheManager;
+
+    @AfterReturning("this(spring.datajpa.repository.MemberRepository) && " +
+            "(execution(* bulkAgePlus(..)) || execution(* delete*InBatch(..)))")
+    public void evictOnMemberRepositoryBulk() {
+        evictAll();
+    }
+
+    @AfterReturning("execution(* spring.datajpa.repository.pure_jpa.MemberJpaRepository.bulkAgePlus(..))")
+    public void evictOnMemberJpaRepositoryBulk() {
+        evictAll();
+    }
+
+    //트랜잭션 안에서 호출됐으면 커밋 후 제거 (커밋 전 값이 다시 캐시되지 않도록)
+    private void evictAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        for (String cacheName : MemberLookupCache.CACHE_NAMES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
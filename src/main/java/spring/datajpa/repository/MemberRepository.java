@@ -6,17 +6,23 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberNameOnly;
 import spring.datajpa.entity.Member;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA Repository
+ * - 읽기/쓰기 분리(datajpa.routing.enabled) 시 @Transactional(readOnly = true) 메서드는 replica 에서 실행
+ * - 수정/잠금 메서드는 @Transactional 로 primary 고정
  * */
-public interface MemberRepository extends JpaRepository<Member, Long> {//JpaRepository<T, ID>
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {//JpaRepository<T, ID>
     List<Member> findByNameAndAgeGreaterThan(String name, int age);
 
 //    @Query(name = "Member.findByName") // 없어도 잘 동작함
@@ -25,10 +31,21 @@ public interface MemberRepository extends JpaRepository<Member, Long> {//JpaRepo
     @Query("select m from Member m where m.name=:name and m.age = :age")
     List<Member> findUser(@Param("name") String name, @Param("age") int age);
 
+    //쿼리 캐시 - Member, Team 변경 시 자동 무효화
+    @Transactional(readOnly = true)
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select new spring.datajpa.dto.MemberDto(m.id, m.name, t.name) " +
             "from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    //DTO 스트리밍 조회 - 엔티티를 만들지 않으므로 영속성 컨텍스트를 사용하지 않음, 트랜잭션 안에서 close 필요
+    //MySQL 은 jdbc url 에 useCursorFetch=true 가 있어야 fetch size 만큼씩 서버 사이드 커서로 조회
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new spring.datajpa.dto.MemberDto(m.id, m.name, t.name) " +
+            "from Member m join m.team t")
+    Stream<MemberDto> streamMemberDto();
+
+    @Transactional(readOnly = true)
     @Query("select m.name from Member m")
     List<String> findNameList();
 
@@ -40,14 +57,17 @@ public interface MemberRepository extends JpaRepository<Member, Long> {//JpaRepo
      - 정렬 조건: 이름으로 내림차순
      - 페이징 조건: 첫 번째 페이지, 페이지당 보여줄 데이터는 3건
     * */
+    @Transactional(readOnly = true)
     @Query(value = "select m from Member m left join m.team t"
             , countQuery = "select count(m) from Member m") // count query 분리
     Page<Member> findByAge(int age, Pageable pageable);
+    @Transactional(readOnly = true)
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
     //벌크성 수정 쿼리
+    @Transactional
     @Modifying(clearAutomatically = true) //필수
-    @Query("update Member m set m.age = m.age + 1 " +
+    @Query("update versioned Member m set m.age = m.age + 1 " +
             "where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
@@ -71,9 +91,37 @@ public interface MemberRepository extends JpaRepository<Member, Long> {//JpaRepo
     @EntityGraph("Member.all")
     List<Member> findNamedEntityGraphByName(@Param("name") String name);
 
+    @Transactional(readOnly = true)
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByName(@Param("name") String name);
 
+    //Projections - 필요한 컬럼만 조회, 엔티티를 만들지 않으므로 영속성 컨텍스트/변경 감지 대상이 아님
+    //1. 인터페이스 기반 (Closed Projection) - row 마다 프록시
+    @Transactional(readOnly = true)
+    List<MemberNameOnly> findNameOnlyByAge(int age);
+    //2. 클래스(record) 기반 - findSummaryByAge, findTeamViewByAge (MemberRepositoryCustom, 리플렉션 없이 생성자 직접 호출)
+    //3. 동적 Projection - 반환 타입을 호출하는 쪽에서 결정 (Member.class, MemberNameOnly.class, MemberSummary.class ...)
+    //   -> Spring Data 가 프록시/리플렉션으로 생성하므로 자주 호출하는 조회에는 2번 사용
+    @Transactional(readOnly = true)
+    <T> List<T> findProjectionsByName(@Param("name") String name, Class<T> type);
+
+    /*
+     - 파티션(Member.partitionKey) 안에서만 실행하는 조회/수정 - 조건에 항상 파티션 키 포함
+       -> 파티셔닝된 테이블이면 해당 파티션만 읽음(partition pruning), 아니면 (partition_key, ...) 인덱스 범위만 읽음
+     - 여러 파티션에 걸친 조회/수정은 MemberPartitionRouter
+    * */
+    @Transactional(readOnly = true)
+    Page<Member> findByPartitionKeyAndAge(int partitionKey, int age, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    List<Member> findByPartitionKeyAndName(int partitionKey, String name);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Member m set m.age = m.age + 1 where m.partitionKey = :partitionKey and m.age >= :age")
+    int bulkAgePlus(@Param("partitionKey") int partitionKey, @Param("age") int age);
+
+    @Transactional //SELECT ... FOR UPDATE 는 primary 에서
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByName(@Param("name") String name);
 
@@ -0,0 +1,87 @@
+package spring.datajpa.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberSummary;
+import spring.datajpa.dto.MemberTeamView;
+import spring.datajpa.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 사용자 정의 Repository
+ * - 구현체: MemberRepositoryImpl (이름 규칙: Repository 인터페이스 이름 + Impl)
+ * */
+public interface MemberRepositoryCustom {
+    /*
+     - findByAge 와 같은 조건의 페이징
+     - 마지막 페이지가 짧거나 첫 페이지에서 끝나는 경우 count 쿼리 생략
+     - 그 외에는 TotalCountCache 에 캐시된 total count 사용
+    * */
+    Page<Member> findByAgeCountCached(int age, Pageable pageable);
+
+    /*
+     - findByAge 와 같은 조건의 페이징을 쿼리 1번으로 실행 (count(m) over() 로 total 함께 조회)
+     - 범위를 벗어난 페이지(결과 0건)를 요청한 경우에만 count 쿼리 추가 실행
+    * */
+    Page<Member> findByAgeWithTotal(int age, Pageable pageable);
+
+    //findByAgeWithTotal 의 DTO 버전 (team 이 없으면 teamName 은 null)
+    Page<MemberDto> findDtoByAgeWithTotal(int age, Pageable pageable);
+
+    /*
+     - Keyset(Seek) 페이징: offset 없이 마지막으로 읽은 (name, id) 이후부터 조회 (MemberKeysetWindows)
+     - 정렬 조건: 이름 내림차순(null 은 마지막), 같은 이름이면 id 내림차순 (tiebreaker)
+     - 첫 페이지는 ScrollPosition.keyset(), 다음 페이지는 window.positionAt(마지막 인덱스)
+     - keyset 위치, 앞으로(forward)만 지원
+    * */
+    Window<Member> findWindowByAgeOrderByNameDescIdDesc(int age, ScrollPosition position, Limit limit);
+
+    /*
+     - 전체 Member 스트리밍 조회 (서버 사이드 커서 + fetch size)
+     - 읽은 엔티티는 바로 detach -> 영속성 컨텍스트에 쌓이지 않으므로 heap 사용량 일정
+     - 2차 캐시를 사용하지 않음(CacheMode.IGNORE) -> 전체 조회가 캐시에 남은 자주 쓰는 Member 를 밀어내지 않음
+     - 트랜잭션 안에서 사용하고 try-with-resources 로 close 해야 함
+     - detach 된 엔티티이므로 지연 로딩(member.getTeam().getName()) 불가
+    * */
+    Stream<Member> streamAll();
+
+    /*
+     - 대량 IN 절 조회 (findByNames 는 컬렉션 전체를 하나의 IN 절로 전송)
+     - datajpa.in-list.chunk-size 개씩 나눠서 조회 후 결과를 합침
+     - datajpa.in-list.temp-table-threshold 개 이상이면 임시 테이블에 이름을 저장하고 join 으로 조회
+     - 대량 조회이므로 2차 캐시에 저장하지 않음 (CacheMode.IGNORE)
+     - 읽기 전용 트랜잭션 안에서 실행 (임시 테이블 생성/저장/조회/삭제가 같은 커넥션 사용)
+    * */
+    List<Member> findByNamesChunked(Collection<String> names);
+
+    /*
+     - id 만 필요한 대량 조회/삭제 - List<Long>(박싱), 엔티티 생성 없이 long[] 로 주고받음 (PrimitiveIds)
+     - 결과 id 는 오름차순 (findExistingIds 는 DB 가 반환한 순서)
+     - deleteAllByIdInBatch: JDBC 로 바로 삭제 (Hibernate 이벤트 X)
+       -> Team.memberCount 는 같은 트랜잭션에서 직접 감소, 2차 캐시의 Member/Team region 은 비움
+       -> 영속성 컨텍스트에 이미 로딩된 Member 는 그대로 남아 있음
+    * */
+    long[] findIdsByTeamId(long teamId);
+
+    long[] findIdsByAgeGreaterThan(int age);
+
+    long[] findExistingIds(long[] ids);
+
+    int deleteAllByIdInBatch(long[] ids);
+
+    /*
+     - record Projection - 스칼라 컬럼만 조회해서 생성자를 직접 호출 (row 마다 프록시/리플렉션 X)
+     - 엔티티를 만들지 않으므로 영속성 컨텍스트에 아무것도 등록되지 않음
+     - findTeamViewByAge: team 이름을 left join 으로 함께 조회 (team 이 없으면 teamName 은 null)
+    * */
+    List<MemberSummary> findSummaryByAge(int age);
+
+    List<MemberTeamView> findTeamViewByAge(int age);
+}
@@ -0,0 +1,261 @@
+package spring.datajpa.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberSummary;
+import spring.datajpa.dto.MemberTeamView;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.support.QueryCacheSpaces;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * MemberRepositoryCustom 구현체
+ * */
+public class MemberRepositoryImpl implements MemberRepositoryCustom {
+    private static final String NAME_TEMP_TABLE = "tmp_member_name";
+    // 스트리밍 조회 fetch size - MySQL 은 jdbc url 에 useCursorFetch=true 가 있어야 서버 사이드 커서로 동작
+    private static final int STREAM_FETCH_SIZE = 1000;
+    //id 조회 결과 배열의 처음 크기 (부족하면 PrimitiveIds 에서 늘림)
+    private static final int TEAM_IDS_EXPECTED_SIZE = 64;
+    private static final int AGE_IDS_EXPECTED_SIZE = 1024;
+
+    private final EntityManager em;
+    private final TotalCountCache countCache;
+    private final int inListChunkSize;
+    private final int tempTableThreshold;
+
+    public MemberRepositoryImpl(EntityManager em, TotalCountCache countCache,
+                                @Value("${datajpa.in-list.chunk-size:1000}") int inListChunkSize,
+                                @Value("${datajpa.in-list.temp-table-threshold:10000}") int tempTableThreshold) {
+        this.em = em;
+        this.countCache = countCache;
+        this.inListChunkSize = inListChunkSize;
+        this.tempTableThreshold = tempTableThreshold;
+    }
+
+    @Override
+    public Page<Member> findByAgeCountCached(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+                "select m from Member m left join m.team t where m.age = :age", pageable.getSort(), "m");
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class)
+                .setParameter("age", age);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<Member> content = query.getResultList();
+
+        // content 만으로 total 을 알 수 있으면 count 쿼리 자체를 실행하지 않음
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.countByAge", List.of(age), () -> countByAge(age)));
+    }
+
+    @Override
+    public Page<Member> findByAgeWithTotal(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+                "select m, count(m) over() from Member m left join m.team t where m.age = :age", pageable.getSort(), "m");
+        return WindowCountPages.getPage(
+                em.createQuery(jpql).setParameter("age", age), pageable,
+                row -> (Member) row[0],
+                () -> countByAge(age));
+    }
+
+    @Override
+    public Page<MemberDto> findDtoByAgeWithTotal(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+                "select m.id, m.name, t.name, count(m) over() from Member m left join m.team t where m.age = :age",
+                pageable.getSort(), "m");
+        return WindowCountPages.getPage(
+                em.createQuery(jpql).setParameter("age", age), pageable,
+                row -> new MemberDto((Long) row[0], (String) row[1], (String) row[2]),
+                () -> countByAge(age));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Member> findWindowByAgeOrderByNameDescIdDesc(int age, ScrollPosition position, Limit limit) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("only keyset scrolling is supported: " + position);
+        }
+        if (limit.isUnlimited()) {
+            throw new IllegalArgumentException("limit is required for keyset scrolling");
+        }
+        return MemberKeysetWindows.findByAgeAfter(em, age, keyset, limit.max());
+    }
+
+    @Override
+    public Stream<Member> streamAll() {
+        return em.createQuery("select m from Member m", Member.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE) //전체 조회로 2차 캐시의 자주 쓰는 Member 를 밀어내지 않도록
+                .getResultStream()
+                .map(member -> {
+                    em.detach(member);
+                    return member;
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNamesChunked(Collection<String> names) {
+        List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+        if (distinctNames.size() >= tempTableThreshold) {
+            return findByNamesWithTempTable(distinctNames);
+        }
+
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += inListChunkSize) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + inListChunkSize, distinctNames.size()));
+            result.addAll(em.createQuery("select m from Member m where m.name in :names", Member.class)
+                    .setParameter("names", chunk)
+                    .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    /*
+     - 이름 목록을 임시 테이블에 JDBC 배치로 저장한 후 join 으로 조회
+     - 임시 테이블 생성/삭제 SQL 은 DB 마다 다르므로 Hibernate Dialect 사용
+     - 조회 후 임시 테이블을 drop -> 커넥션 풀로 돌아간 커넥션에 남아 있으면 같은 커넥션의 다음 호출에서 생성 실패
+    * */
+    private List<Member> findByNamesWithTempTable(List<String> names) {
+        Session session = em.unwrap(Session.class);
+        Dialect dialect = session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                String options = dialect.getTemporaryTableCreateOptions();
+                statement.execute(dialect.getTemporaryTableCreateCommand() + " " + NAME_TEMP_TABLE
+                        + " (name varchar(255) not null)" + (options == null ? "" : " " + options));
+            }
+        });
+
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "insert into " + NAME_TEMP_TABLE + " (name) values (?)")) {
+                    int count = 0;
+                    for (String name : names) {
+                        insert.setString(1, name);
+                        insert.addBatch();
+                        if (++count % inListChunkSize == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+            });
+            @SuppressWarnings("unchecked")
+            List<Member> result = em.createNativeQuery(
+                            "select m.* from member m join " + NAME_TEMP_TABLE + " t on t.name = m.name", Member.class)
+                    .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                    .getResultList();
+            return result;
+        } finally {
+            session.doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(dialect.getTemporaryTableDropCommand() + " " + NAME_TEMP_TABLE);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long[] findIdsByTeamId(long teamId) {
+        return PrimitiveIds.query(em, "select member_id from member where team_id = ? order by member_id",
+                TEAM_IDS_EXPECTED_SIZE, ps -> ps.setLong(1, teamId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long[] findIdsByAgeGreaterThan(int age) {
+        return PrimitiveIds.query(em, "select member_id from member where age > ? order by member_id",
+                AGE_IDS_EXPECTED_SIZE, ps -> ps.setInt(1, age));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long[] findExistingIds(long[] ids) {
+        return PrimitiveIds.queryIn(em, "select member_id from member where member_id in ", ids, inListChunkSize);
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllByIdInBatch(long[] ids) {
+        int deleted = PrimitiveIds.forEachChunk(em, ids, inListChunkSize, (connection, chunk, from, to) -> {
+            String in = PrimitiveIds.placeholders(to - from);
+            //삭제할 Member 가 속한 Team 의 memberCount 를 먼저 감소 (TeamMemberCountListener 를 거치지 않으므로)
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "update team set member_count = member_count - (select count(*) from member m where m.team_id = team.team_id and m.member_id in " + in + ")"
+                            + " where team_id in (select m.team_id from member m where m.member_id in " + in + ")")) {
+                PrimitiveIds.bind(ps, PrimitiveIds.bind(ps, 1, chunk, from, to), chunk, from, to);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = connection.prepareStatement("delete from member where member_id in " + in)) {
+                PrimitiveIds.bind(ps, 1, chunk, from, to);
+                return ps.executeUpdate();
+            }
+        });
+        //JDBC 로 직접 삭제했으므로 2차 캐시에 남은 Member/Team(memberCount), member/team 을 조회한 쿼리 캐시 결과 제거
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evict(Member.class);
+        cache.evict(Team.class);
+        QueryCacheSpaces.invalidate(em, "member", "team");
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberSummary> findSummaryByAge(int age) {
+        return em.createQuery("select m.id, m.name, m.age from Member m where m.age = :age", Object[].class)
+                .setParameter("age", age)
+                .getResultList().stream()
+                .map(row -> new MemberSummary((Long) row[0], (String) row[1], (Integer) row[2]))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberTeamView> findTeamViewByAge(int age) {
+        return em.createQuery("select m.id, m.name, t.name from Member m left join m.team t where m.age = :age", Object[].class)
+                .setParameter("age", age)
+                .getResultList().stream()
+                .map(row -> new MemberTeamView((Long) row[0], (String) row[1], (String) row[2]))
+                .toList();
+    }
+
+    private long countByAge(int age) {
+        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                .setParameter("age", age)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,125 @@
+package spring.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * id 만 필요한 조회/수정을 박싱 없이 long[] 로 실행 (MemberRepositoryImpl, TeamRepositoryImpl)
+ * - JDBC ResultSet.getLong / PreparedStatement.setLong 을 직접 사용 -> row 마다 Long, Object[], 엔티티를 만들지 않음
+ * - 결과 배열은 예상 크기로 생성하고 부족하면 1.5배씩 늘림, IN 조회는 결과가 ids 보다 많을 수 없으므로 ids 크기로 한 번만 생성
+ *   -> count(*) over() 로 정확한 크기를 먼저 알아내는 방식은 DB 가 결과 전체를 모은 후에야 첫 row 를 보내므로 사용하지 않음
+ * - JPA 쿼리를 거치지 않으므로 트랜잭션 안에서는 실행 전에 flush (아직 반영되지 않은 변경도 보이도록)
+ * */
+final class PrimitiveIds {
+    static final long[] EMPTY = new long[0];
+
+    private PrimitiveIds() {
+    }
+
+    @FunctionalInterface
+    interface Parameters {
+        void set(PreparedStatement ps) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface ChunkWork {
+        int execute(Connection connection, long[] ids, int from, int to) throws SQLException;
+    }
+
+    //sql: select <id> from ...
+    static long[] query(EntityManager em, String sql, int expectedSize, Parameters parameters) {
+        return session(em).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                parameters.set(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    long[] ids = new long[Math.max(expectedSize, 16)];
+                    int size = 0;
+                    while (rs.next()) {
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, size + (size >> 1));
+                        }
+                        ids[size++] = rs.getLong(1);
+                    }
+                    return trim(ids, size);
+                }
+            }
+        });
+    }
+
+    //ids 를 chunkSize 개씩 IN (?, ?, ...) 로 조회 - 결과는 최대 ids.length 개이므로 그 크기로 받은 후 잘라냄
+    static long[] queryIn(EntityManager em, String sqlPrefix, long[] ids, int chunkSize) {
+        return queryIn(em, sqlPrefix, ids, chunkSize, "");
+    }
+
+    //sqlSuffix: IN (...) 뒤에 붙일 절 (for update 등)
+    static long[] queryIn(EntityManager em, String sqlPrefix, long[] ids, int chunkSize, String sqlSuffix) {
+        if (ids.length == 0) {
+            return EMPTY;
+        }
+        long[] found = new long[ids.length];
+        int[] size = {0};
+        forEachChunk(em, ids, chunkSize, (connection, chunk, from, to) -> {
+            try (PreparedStatement ps = connection.prepareStatement(sqlPrefix + placeholders(to - from) + sqlSuffix)) {
+                bind(ps, 1, chunk, from, to);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        found[size[0]++] = rs.getLong(1);
+                    }
+                }
+            }
+            return 0;
+        });
+        return trim(found, size[0]);
+    }
+
+    static int forEachChunk(EntityManager em, long[] ids, int chunkSize, ChunkWork work) {
+        if (ids.length == 0) {
+            return 0;
+        }
+        return session(em).doReturningWork(connection -> {
+            int rows = 0;
+            for (int from = 0; from < ids.length; from += chunkSize) {
+                rows += work.execute(connection, ids, from, Math.min(from + chunkSize, ids.length));
+            }
+            return rows;
+        });
+    }
+
+    //(?, ?, ... ?)
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3 + 2).append('(');
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+
+    //ids[from, to) 를 index 번째 파라미터부터 바인딩하고 다음 index 반환
+    static int bind(PreparedStatement ps, int index, long[] ids, int from, int to) throws SQLException {
+        for (int i = from; i < to; i++) {
+            ps.setLong(index++, ids[i]);
+        }
+        return index;
+    }
+
+    private static long[] trim(long[] ids, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    private static Session session(EntityManager em) {
+        Session session = em.unwrap(Session.class);
+        if (em.isJoinedToTransaction()) {
+            session.flush();
+        }
+        return session;
+    }
+}
@@ -1,12 +1,40 @@
 package spring.datajpa.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.dto.TeamMemberCount;
 import spring.datajpa.entity.Team;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA Repository
  * */
-public interface TeamRepository extends JpaRepository<Team, Long> {//JpaRepository<T, ID>
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {//JpaRepository<T, ID>
+    //Team 은 거의 변경되지 않으므로 쿼리 캐시 사용
+    @Override
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Team> findAll();
+
+    //동적 Projection - Spring Data 가 프록시/리플렉션으로 생성 (record 를 직접 생성하는 조회는 findSummaryBy)
+    <T> List<T> findProjectionsByName(String name, Class<T> type);
+
+    //여러 Team 의 Member 수를 한 번에 조회 (Team.members 초기화, count 쿼리 없이)
+    @Transactional(readOnly = true)
+    @Query("select new spring.datajpa.dto.TeamMemberCount(t.id, t.memberCount) from Team t where t.id in :teamIds")
+    List<TeamMemberCount> findMemberCounts(@Param("teamIds") Collection<Long> teamIds);
+
+    //memberCount 를 실제 Member 수로 다시 계산, 값이 다른 Team 만 수정 (TeamMemberCountRepairJob)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Team t set t.memberCount = (select count(m) from Member m where m.team = t) " +
+            "where t.memberCount <> (select count(m) from Member m where m.team = t)")
+    int repairMemberCounts();
 }
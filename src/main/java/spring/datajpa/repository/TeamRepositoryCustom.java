@@ -0,0 +1,23 @@
+package spring.datajpa.repository;
+
+import spring.datajpa.dto.TeamSummary;
+
+import java.util.List;
+
+/**
+ * 사용자 정의 Repository
+ * - 구현체: TeamRepositoryImpl (이름 규칙: Repository 인터페이스 이름 + Impl)
+ * */
+public interface TeamRepositoryCustom {
+    /*
+     - id 만 필요한 대량 조회 - List<Long>(박싱), 엔티티 생성 없이 long[] 로 반환 (PrimitiveIds)
+     - 결과 id 는 오름차순
+    * */
+    long[] findAllIds();
+
+    //memberCount(Team.memberCount) 가 minMemberCount 이상인 Team
+    long[] findIdsByMemberCountGreaterThanEqual(int minMemberCount);
+
+    //record Projection - 스칼라 컬럼만 조회해서 생성자를 직접 호출 (row 마다 프록시/리플렉션 X)
+    List<TeamSummary> findSummaryBy();
+}
@@ -0,0 +1,45 @@
+package spring.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.dto.TeamSummary;
+
+import java.util.List;
+
+/**
+ * TeamRepositoryCustom 구현체
+ * */
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+    //id 조회 결과 배열의 처음 크기 (부족하면 PrimitiveIds 에서 늘림)
+    private static final int EXPECTED_SIZE = 256;
+
+    private final EntityManager em;
+
+    public TeamRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long[] findAllIds() {
+        return PrimitiveIds.query(em, "select team_id from team order by team_id",
+                EXPECTED_SIZE, ps -> {
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long[] findIdsByMemberCountGreaterThanEqual(int minMemberCount) {
+        return PrimitiveIds.query(em, "select team_id from team where member_count >= ? order by team_id",
+                EXPECTED_SIZE, ps -> ps.setInt(1, minMemberCount));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeamSummary> findSummaryBy() {
+        return em.createQuery("select t.id, t.name from Team t", Object[].class)
+                .getResultList().stream()
+                .map(row -> new TeamSummary((Long) row[0], (String) row[1]))
+                .toList();
+    }
+}
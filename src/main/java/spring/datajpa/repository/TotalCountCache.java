@@ -0,0 +1,61 @@
+package spring.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 count 쿼리 결과 캐시
+ * - (쿼리, 파라미터) 별로 total count를 TTL 동안 재사용
+ * - Member 변경(save, delete, bulkAgePlus) 시 전체 무효화 -> MemberCountCacheEvictAspect
+ * - ttl 을 0 으로 설정하면 캐시하지 않음
+ * */
+@Component
+public class TotalCountCache {
+    private final long ttlNanos;
+    private final Map<List<Object>, Entry> cache = new ConcurrentHashMap<>();
+    // 무효화 세대 - count 쿼리 실행 중에 무효화가 일어나면 그 결과는 저장하지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    public TotalCountCache(@Value("${datajpa.count-cache.ttl:10s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long get(String query, List<?> params, LongSupplier countQuery) {
+        if (ttlNanos <= 0) {
+            return countQuery.getAsLong();
+        }
+
+        List<Object> key = new ArrayList<>(params.size() + 1);
+        key.add(query);
+        key.addAll(params);
+
+        long now = System.nanoTime();
+        Entry entry = cache.get(key);
+        if (entry != null && now - entry.cachedAt() < ttlNanos) {
+            return entry.total();
+        }
+
+        long gen = generation.get();
+        long total = countQuery.getAsLong();
+        if (gen == generation.get()) {
+            cache.put(key, new Entry(total, now));
+        }
+        return total;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private record Entry(long total, long cachedAt) {
+    }
+}
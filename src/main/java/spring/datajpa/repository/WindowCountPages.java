@@ -0,0 +1,41 @@
+package spring.datajpa.repository;
+
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이지 내용 + total count 를 한 번의 쿼리로 조회 (window function)
+ * - select ..., count(m) over() from ... -> 모든 row 의 마지막 컬럼에 limit/offset 적용 전 전체 row 수가 담김
+ * - content 쿼리 + count 쿼리 2번 -> 1번 (DB 왕복 절반)
+ * - 요청한 페이지가 범위를 벗어나 row 가 하나도 없으면 total 을 알 수 없음 -> 그때만 countQuery 실행
+ * - window function 을 지원하는 DB 필요 (MySQL 8+, H2 등)
+ * */
+public final class WindowCountPages {
+
+    private WindowCountPages() {
+    }
+
+    public static <T> Page<T> getPage(Query query, Pageable pageable,
+                                      Function<Object[], T> mapper, LongSupplier countQuery) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        if (rows.isEmpty()) {
+            // 첫 페이지가 비어 있으면 total 0, 그 외에는 범위를 벗어난 페이지
+            long total = pageable.isUnpaged() || pageable.getOffset() == 0 ? 0 : countQuery.getAsLong();
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        long total = ((Number) rows.get(0)[rows.get(0).length - 1]).longValue();
+        return new PageImpl<>(rows.stream().map(mapper).toList(), pageable, total);
+    }
+}
@@ -0,0 +1,44 @@
+package spring.datajpa.repository.pure_jpa;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 순수 JPA Repository 의 대량 저장 (MemberJpaRepository, TeamJpaRepository)
+ * - batchSize(datajpa.batch.size) 는 JpaBatchConfig 의 hibernate.jdbc.batch_size 와 같은 값
+ * */
+@Component
+public class BatchPersister {
+    private final int batchSize;
+
+    public BatchPersister(@Value("${datajpa.batch.size:100}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /*
+     - 대량 저장: batchSize 건마다 flush(INSERT 배치 전송) + clear(영속성 컨텍스트 비우기)
+     - 영속성 컨텍스트가 계속 비워지므로 수백만 건을 저장해도 heap 사용량이 일정
+     - clear 이후 저장한 엔티티는 준영속 상태가 됨
+    * */
+    public <T> long persistAll(EntityManager em, Stream<T> entities) {
+        long count = 0;
+        for (Iterator<T> it = entities.iterator(); it.hasNext(); ) {
+            em.persist(it.next());
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
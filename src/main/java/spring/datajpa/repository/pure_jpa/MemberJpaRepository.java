@@ -2,25 +2,50 @@ package spring.datajpa.repository.pure_jpa;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Repository;
+import spring.datajpa.dto.MemberDto;
 import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberKeysetWindows;
+import spring.datajpa.repository.TotalCountCache;
+import spring.datajpa.repository.WindowCountPages;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 순수 JPA 기반 Repository
  * */
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
+    // MySQL 은 jdbc url 에 useCursorFetch=true 가 있어야 서버 사이드 커서로 동작
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     @PersistenceContext
     private EntityManager em;
+    private final BatchPersister batchPersister;
+    private final TotalCountCache countCache;
 
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    //대량 저장 - batchSize 건마다 flush + clear (BatchPersister)
+    public long saveAll(Stream<Member> members) {
+        return batchPersister.persistAll(em, members);
+    }
+
     public void delete(Member member) {
         em.remove(member);
     }
@@ -30,6 +55,32 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /*
+     - 전체 조회를 List 대신 Stream 으로 (서버 사이드 커서 + fetch size)
+     - 읽은 엔티티는 바로 detach 하므로 영속성 컨텍스트에 쌓이지 않음
+     - 2차 캐시를 사용하지 않음 -> 전체 조회가 캐시에 남은 자주 쓰는 Member 를 밀어내지 않음
+     - 트랜잭션 안에서 사용하고 close 해야 함
+    * */
+    public Stream<Member> streamAll() {
+        return em.createQuery("select m from Member m", Member.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+                .map(member -> {
+                    em.detach(member);
+                    return member;
+                });
+    }
+
+    //DTO 로 바로 조회하므로 엔티티(영속성 컨텍스트)를 거치지 않음
+    public Stream<MemberDto> streamMemberDto() {
+        return em.createQuery("select new spring.datajpa.dto.MemberDto(m.id, m.name, t.name) " +
+                        "from Member m join m.team t", MemberDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
     public Optional<Member> findById(Long id) {
         Member member = em.find(Member.class, id);
         return Optional.ofNullable(member);
@@ -70,18 +121,62 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /*
+     - findByPage + totalCount 를 쿼리 1번으로 (count(m) over() 로 total 함께 조회)
+     - 정렬은 findByPage 와 같이 이름 내림차순 고정, offset 대신 페이지 번호(page)와 크기(size) 사용
+    * */
+    public Page<Member> findByPageWithTotal(int age, int page, int size) {
+        Query query = em.createQuery("select m, count(m) over() from Member m where m.age=:age order by m.name desc")
+                .setParameter("age", age);
+        return WindowCountPages.getPage(query, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "name")),
+                row -> (Member) row[0],
+                () -> totalCount(age));
+    }
+
+    /*
+     - Keyset(Seek) 페이징: 마지막으로 읽은 (name, id) 다음 데이터부터 limit 개 조회 (MemberKeysetWindows)
+     - name 이 null 인 Member 는 마지막에, 앞으로(forward)만 지원
+    * */
+    public Window<Member> findByPageAfter(int age, KeysetScrollPosition position, int limit) {
+        return MemberKeysetWindows.findByAgeAfter(em, age, position, limit);
+    }
+
+    //Spring Data JPA 의 findByAgeCountCached 와 같은 캐시 사용
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age=:age", Long.class)
-                .setParameter("age", age)
-                .getSingleResult();
+        return countCache.get("Member.countByAge", List.of(age),
+                () -> em.createQuery("select count(m) from Member m where m.age=:age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
     }
 
     public int bulkAgePlus(int age) {
         return em.createQuery(
-                        "update Member m set m.age = m.age + 1" +
+                        "update versioned Member m set m.age = m.age + 1" +
                                 "where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
 
+    //id 범위 [fromId, toId) 안에서만 벌크 수정 - 잠금 범위를 작게 나눠서 실행할 때 사용
+    public int bulkAgePlus(int age, long fromId, long toId) {
+        return em.createQuery(
+                        "update versioned Member m set m.age = m.age + 1 " +
+                                "where m.age >= :age and m.id >= :fromId and m.id < :toId")
+                .setParameter("age", age)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+    }
+
+    //벌크 수정 대상의 id 범위 {최소 id, 최대 id}
+    public Optional<long[]> findIdRange(int age) {
+        Object[] range = em.createQuery("select min(m.id), max(m.id) from Member m where m.age >= :age", Object[].class)
+                .setParameter("age", age)
+                .getSingleResult();
+        if (range[0] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new long[]{(Long) range[0], (Long) range[1]});
+    }
+
 }
@@ -2,25 +2,34 @@ package spring.datajpa.repository.pure_jpa;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import spring.datajpa.entity.Team;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 순수 JPA 기반 Repository
  * */
 @Repository
+@RequiredArgsConstructor
 public class TeamJpaRepository {
     @PersistenceContext
     private EntityManager em;
+    private final BatchPersister batchPersister;
 
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    //대량 저장 - batchSize 건마다 flush + clear (BatchPersister)
+    public long saveAll(Stream<Team> teams) {
+        return batchPersister.persistAll(em, teams);
+    }
+
     public void delete(Team team) {
         em.remove(team);
     }
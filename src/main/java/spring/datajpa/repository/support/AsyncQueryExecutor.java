@@ -0,0 +1,77 @@
+package spring.datajpa.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Repository 호출을 가상 스레드(virtual thread)에서 실행하고 CompletableFuture 로 반환
+ * - 요청마다 가상 스레드를 하나씩 사용하므로 JDBC 대기 중에도 플랫폼 스레드를 점유하지 않음
+ * - 동시에 DB 를 사용하는 작업 수는 커넥션 풀 크기(datajpa.async.max-concurrency)로 제한
+ *   -> 커넥션을 얻지 못한 가상 스레드가 풀 앞에 무한정 쌓이지 않도록 acquire-timeout 안에 실행하지 못하면 거절
+ * - 작업마다 트랜잭션을 새로 시작 (readOnly 이면 replica 로 라우팅 가능)
+ * */
+@Component
+public class AsyncQueryExecutor {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public AsyncQueryExecutor(PlatformTransactionManager transactionManager,
+                              @Value("${datajpa.async.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+                              @Value("${datajpa.async.acquire-timeout:30s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> CompletableFuture<T> read(Supplier<T> query) {
+        return submit(readTransaction, query);
+    }
+
+    public <T> CompletableFuture<T> write(Supplier<T> command) {
+        return submit(writeTransaction, command);
+    }
+
+    private <T> CompletableFuture<T> submit(TransactionTemplate transaction, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            acquire();
+            try {
+                return transaction.execute(status -> task.get());
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("no database permit within " + acquireTimeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for database permit", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
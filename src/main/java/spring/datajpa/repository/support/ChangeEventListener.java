@@ -0,0 +1,148 @@
+package spring.datajpa.repository.support;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import spring.datajpa.entity.ChangeEvent;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Member/Team INSERT/UPDATE/DELETE 를 change_event(outbox)에 기록 (ChangeEventConfig 에서 등록)
+ * - 변경 순서대로 모아두었다가 커밋 직전에 같은 커넥션으로 JDBC batch INSERT -> 커밋되어야만 이벤트도 남음
+ * - changeTeam/setTeam 은 Member UPDATED (payload 의 teamId)
+ * - 기록하는 필드: Member(name, age, teamId), Team(name) + version
+ *   -> Team.memberCount 는 Member 이벤트로 알 수 있으므로 제외
+ * - 벌크 연산은 MemberBulkChangeEventAspect, write-behind 는 MemberWriteBehindBuffer 에서 기록
+ * */
+public class ChangeEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private static final Set<String> MEMBER_FIELDS = Set.of("name", "age", "team");
+    private static final Set<String> TEAM_FIELDS = Set.of("name");
+    private static final String VERSION = "version";
+
+    //세션(트랜잭션) 별 이벤트 - 트랜잭션이 끝나면 제거
+    private final Map<SharedSessionContractImplementor, PendingEvents> pending = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Set<String> fields = fields(event.getEntity());
+        if (fields != null) {
+            add(event.getSession(), event.getEntity(), event.getId(), ChangeEvent.Type.CREATED,
+                    payload(event.getPersister(), event.getState(), null, fields, event.getSession()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Set<String> fields = fields(event.getEntity());
+        if (fields == null) {
+            return;
+        }
+        int[] dirty = event.getDirtyProperties();
+        Map<String, Object> payload = payload(event.getPersister(), event.getState(), dirty, fields, event.getSession());
+        if (payload.size() > 1 || dirty == null) { //version 외에 기록할 필드가 바뀐 경우만
+            add(event.getSession(), event.getEntity(), event.getId(), ChangeEvent.Type.UPDATED, payload);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Set<String> fields = fields(event.getEntity());
+        if (fields != null) {
+            add(event.getSession(), event.getEntity(), event.getId(), ChangeEvent.Type.DELETED,
+                    payload(event.getPersister(), event.getDeletedState(), null, fields, event.getSession()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Set<String> fields(Object entity) {
+        if (entity instanceof Member) {
+            return MEMBER_FIELDS;
+        }
+        if (entity instanceof Team) {
+            return TEAM_FIELDS;
+        }
+        return null;
+    }
+
+    //dirty 가 null 이면 fields 전체, 아니면 바뀐 필드만 (+ version)
+    private static Map<String, Object> payload(EntityPersister persister, Object[] state, int[] dirty,
+                                               Set<String> fields, EventSource session) {
+        String[] names = persister.getPropertyNames();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        if (dirty == null) {
+            for (int i = 0; i < names.length; i++) {
+                put(payload, names[i], state[i], fields, session);
+            }
+        } else {
+            for (int i : dirty) {
+                put(payload, names[i], state[i], fields, session);
+            }
+        }
+        payload.put(VERSION, state[persister.getEntityMetamodel().getPropertyIndex(VERSION)]);
+        return payload;
+    }
+
+    private static void put(Map<String, Object> payload, String name, Object value, Set<String> fields, EventSource session) {
+        if (!fields.contains(name)) {
+            return;
+        }
+        if (value instanceof Team team) {
+            payload.put("teamId", session.getFactory().getMappingMetamodel()
+                    .getEntityDescriptor(Team.class)
+                    .getIdentifier(team, session));
+        } else if (name.equals("team")) {
+            payload.put("teamId", null);
+        } else {
+            payload.put(name, value);
+        }
+    }
+
+    private void add(EventSource session, Object entity, Object id, ChangeEvent.Type type, Map<String, Object> payload) {
+        ChangeEvent changeEvent = new ChangeEvent(entity.getClass().getSimpleName(), (Long) id, type,
+                ChangeEventOutbox.payload(payload));
+        pending.computeIfAbsent(session, s -> {
+            PendingEvents created = new PendingEvents();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) created);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) created);
+            return created;
+        }).events.add(changeEvent);
+    }
+
+    private class PendingEvents implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+        private final List<ChangeEvent> events = new ArrayList<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            if (!events.isEmpty()) {
+                session.doWork(connection -> ChangeEventOutbox.insert(connection, events));
+            }
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(session);
+        }
+    }
+}
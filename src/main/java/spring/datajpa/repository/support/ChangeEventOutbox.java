@@ -0,0 +1,66 @@
+package spring.datajpa.repository.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.entity.ChangeEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * change_event(outbox) 테이블 INSERT
+ * - 엔티티 변경과 반드시 같은 트랜잭션에서 실행 -> 커밋되면 변경과 이벤트가 함께, 롤백되면 둘 다 사라짐
+ * - Hibernate 리스너는 세션 커넥션으로 insert(connection, ...), 그 외(JDBC/벌크 경로)는 append(...)
+ * */
+@Component
+public class ChangeEventOutbox {
+    private static final String INSERT = "insert into change_event (aggregate_type, aggregate_id, type, payload, created_at) values (?, ?, ?, ?, ?)";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeEventOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    //현재 트랜잭션의 커넥션으로 INSERT (트랜잭션이 없으면 예외)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            insert(connection, events);
+            return null;
+        });
+    }
+
+    static void insert(Connection connection, List<ChangeEvent> events) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+            for (ChangeEvent event : events) {
+                ps.setString(1, event.getAggregateType());
+                ps.setObject(2, event.getAggregateId());
+                ps.setString(3, event.getType().name());
+                ps.setString(4, event.getPayload());
+                ps.setObject(5, event.getCreatedAt());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    public static String payload(Map<String, ?> fields) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("cannot serialize change event payload: " + fields, e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package spring.datajpa.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dto.ChangeEventMessage;
+import spring.datajpa.entity.ChangeEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * change_event(outbox)를 읽어서 Batch 로 발행 (ApplicationEvent - @EventListener 로 소비)
+ * - datajpa.outbox.relay-interval 마다 커밋된 row 를 id 순서로 batch-size 개씩 읽어서 발행 후 삭제
+ *   -> batch 가 가득 차면 쉬지 않고 다음 batch 를 읽음 (지연은 최대 relay-interval + 처리 시간)
+ * - 발행과 삭제는 한 트랜잭션: 소비하는 쪽에서 예외가 나면 롤백되고 다음 주기에 다시 발행 (at-least-once)
+ *   -> 소비하는 쪽은 ChangeEventMessage.id 로 중복 제거
+ * - 순서: 같은 Member/Team 은 row lock 때문에 커밋 순서 = id 순서
+ *   서로 다른 aggregate 는 id 가 작은 트랜잭션이 늦게 커밋되면 다음 batch 에서 발행될 수 있음
+ * - relay-interval 을 0 으로 설정하면 자동 실행하지 않음 (drain() 으로 직접 실행)
+ * - 애플리케이션 인스턴스 하나에서만 실행한다고 가정 (여러 인스턴스면 같은 이벤트를 중복 발행할 수 있음)
+ * */
+@Slf4j
+@Component
+public class ChangeEventRelay {
+    private final EntityManager em;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock drainLock = new ReentrantLock(); //drain 은 한 번에 하나만
+
+    private final LongAdder published = new LongAdder();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public record Batch(List<ChangeEventMessage> events) {
+    }
+
+    public ChangeEventRelay(EntityManager em,
+                            ApplicationEventPublisher publisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${datajpa.outbox.batch-size:500}") int batchSize,
+                            @Value("${datajpa.outbox.relay-interval:200ms}") Duration interval) {
+        this.em = em;
+        this.publisher = publisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        if (interval.isZero() || interval.isNegative()) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-event-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::drainQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //남은 이벤트를 모두 발행하고 발행한 수를 반환
+    public int drain() {
+        drainLock.lock();
+        try {
+            int total = 0;
+            int relayed;
+            do {
+                relayed = relayBatch();
+                total += relayed;
+            } while (relayed == batchSize);
+            return total;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private int relayBatch() {
+        Integer relayed = transaction.execute(status -> {
+            List<ChangeEvent> events = em.createQuery("select e from ChangeEvent e order by e.id", ChangeEvent.class)
+                    .setMaxResults(batchSize)
+                    .getResultList();
+            if (events.isEmpty()) {
+                return 0;
+            }
+            publisher.publishEvent(new Batch(events.stream().map(ChangeEventMessage::of).toList()));
+            em.createQuery("delete from ChangeEvent e where e.id in :ids")
+                    .setParameter("ids", events.stream().map(ChangeEvent::getId).toList())
+                    .executeUpdate();
+            lagMillis.set(Duration.between(events.get(events.size() - 1).getCreatedAt(), LocalDateTime.now()).toMillis());
+            return events.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        published.add(count);
+        return count;
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("change event relay failed, will retry", e);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    //마지막으로 발행한 이벤트가 기록된 후 발행될 때까지 걸린 시간
+    public long getLastLagMillis() {
+        return lagMillis.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
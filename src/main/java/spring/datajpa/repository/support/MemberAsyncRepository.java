@@ -0,0 +1,59 @@
+package spring.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import spring.datajpa.dto.MemberDto;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * MemberRepository 비동기 Facade - AsyncQueryExecutor 에서 실행
+ * - 반환된 엔티티는 트랜잭션이 끝난 준영속 상태 -> 지연 로딩이 필요하면 fetch join 메서드 사용
+ * */
+@Component
+@RequiredArgsConstructor
+public class MemberAsyncRepository {
+    private final MemberRepository memberRepository;
+    private final AsyncQueryExecutor executor;
+
+    public CompletableFuture<Optional<Member>> findById(Long id) {
+        return executor.read(() -> memberRepository.findById(id));
+    }
+
+    public CompletableFuture<List<Member>> findByName(String name) {
+        return executor.read(() -> memberRepository.findByName(name));
+    }
+
+    public CompletableFuture<Page<Member>> findByAge(int age, Pageable pageable) {
+        return executor.read(() -> memberRepository.findByAge(age, pageable));
+    }
+
+    public CompletableFuture<Slice<Member>> findSliceByAge(int age, Pageable pageable) {
+        return executor.read(() -> memberRepository.findSliceByAge(age, pageable));
+    }
+
+    public CompletableFuture<List<Member>> findMemberFetchJoin() {
+        return executor.read(memberRepository::findMemberFetchJoin);
+    }
+
+    public CompletableFuture<List<MemberDto>> findMemberDto() {
+        return executor.read(memberRepository::findMemberDto);
+    }
+
+    public CompletableFuture<Member> save(Member member) {
+        return executor.write(() -> memberRepository.save(member));
+    }
+
+    //그 외 메서드는 직접 지정해서 실행
+    public <T> CompletableFuture<T> read(Function<MemberRepository, T> query) {
+        return executor.read(() -> query.apply(memberRepository));
+    }
+}
@@ -0,0 +1,206 @@
+package spring.datajpa.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.BulkUpdateJob;
+import spring.datajpa.entity.BulkUpdateJobChunk;
+import spring.datajpa.repository.BulkUpdateJobChunkRepository;
+import spring.datajpa.repository.BulkUpdateJobRepository;
+import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * bulkAgePlus 를 id 범위(chunk) 단위로 나눠서 실행
+ * - chunk 마다 별도 트랜잭션으로 커밋 -> 한 번에 잡는 row lock 범위와 시간이 chunk 크기로 제한됨
+ * - chunk 는 크기가 제한된 executor 에서 병렬 실행 (datajpa.bulk.parallelism)
+ * - 완료된 chunk 는 chunk 의 UPDATE 와 같은 트랜잭션에서 BulkUpdateJobChunk 로 INSERT (이전 chunk 는 읽지 않음)
+ *   -> 실패 후 같은 Checkpoint 로, 재시작 후에는 resume(jobId) 로 다시 실행하면 남은 chunk 만 실행
+ *   (age + 1 은 멱등이 아니므로 완료된 chunk 를 다시 실행하면 안 됨)
+ * - 호출하는 쪽에 트랜잭션이 없어야 함 (각 chunk 가 독립적으로 커밋)
+ * */
+@Component
+public class MemberChunkedBulkUpdater {
+    private final MemberJpaRepository memberJpaRepository;
+    private final BulkUpdateJobRepository jobRepository;
+    private final BulkUpdateJobChunkRepository chunkRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    public MemberChunkedBulkUpdater(MemberJpaRepository memberJpaRepository,
+                                    BulkUpdateJobRepository jobRepository,
+                                    BulkUpdateJobChunkRepository chunkRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${datajpa.bulk.chunk-size:1000}") int chunkSize,
+                                    @Value("${datajpa.bulk.parallelism:4}") int parallelism) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public Checkpoint bulkAgePlus(int age) {
+        return bulkAgePlus(age, checkpoint -> {
+        });
+    }
+
+    public Checkpoint bulkAgePlus(int age, Consumer<Checkpoint> progressListener) {
+        Checkpoint checkpoint = prepare(age);
+        execute(checkpoint, progressListener);
+        return checkpoint;
+    }
+
+    /*
+     - 시작 시점의 대상 id 범위를 고정해서 chunk 를 나눔 (BulkUpdateJob 으로 저장)
+     - 이후에 추가된 Member 는 대상이 아님
+    * */
+    public Checkpoint prepare(int age) {
+        long[] range = memberJpaRepository.findIdRange(age).orElseGet(() -> new long[]{1, 0});
+        BulkUpdateJob job = jobRepository.save(new BulkUpdateJob(age, range[0], range[1], chunkSize));
+        return new Checkpoint(job.getId(), age, range[0], range[1], chunkSize);
+    }
+
+    //저장된 진행 상황으로 Checkpoint 복원 (재시작 후 이어서 실행할 때)
+    public Checkpoint resume(long jobId) {
+        Checkpoint checkpoint = chunkTransaction.execute(status -> {
+            BulkUpdateJob job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new IllegalArgumentException("unknown bulk update job: " + jobId));
+            return new Checkpoint(job.getId(), job.getAge(), job.getMinId(), job.getMaxId(), job.getChunkSize());
+        });
+        refresh(checkpoint);
+        return checkpoint;
+    }
+
+    /*
+     - 아직 완료되지 않은 chunk 만 실행
+     - chunk 가 하나라도 실패하면 실행 중인 chunk 가 끝날 때까지 기다린 후 예외를 던짐
+       -> 같은 Checkpoint 로 다시 execute 하면 이어서 실행
+    * */
+    public void execute(Checkpoint checkpoint, Consumer<Checkpoint> progressListener) {
+        refresh(checkpoint); //다른 Checkpoint 객체(이전 실행)로 완료된 chunk 반영
+        List<Future<?>> futures = new ArrayList<>();
+        for (long fromId = checkpoint.minId; fromId <= checkpoint.maxId; fromId += checkpoint.chunkSize) {
+            if (checkpoint.isCompleted(fromId)) {
+                continue;
+            }
+            long chunkFrom = fromId;
+            long chunkTo = Math.min(fromId + checkpoint.chunkSize, checkpoint.maxId + 1);
+            futures.add(executor.submit(() -> {
+                Integer updated = chunkTransaction.execute(status -> {
+                    int rows = memberJpaRepository.bulkAgePlus(checkpoint.age, chunkFrom, chunkTo);
+                    chunkRepository.save(new BulkUpdateJobChunk(jobRepository.getReferenceById(checkpoint.jobId), chunkFrom, rows));
+                    return rows;
+                });
+                checkpoint.complete(chunkFrom, updated == null ? 0 : updated);
+                progressListener.accept(checkpoint);
+            }));
+        }
+
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(false));
+                throw new IllegalStateException("bulk update interrupted", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("bulk update chunk failed", e.getCause());
+                    futures.forEach(f -> f.cancel(false)); // 아직 시작하지 않은 chunk 취소
+                }
+            } catch (CancellationException ignored) {
+                // 실패로 인해 취소된 chunk - 다음 execute 에서 실행
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    //저장된 완료 chunk 의 시작 id 와 수정된 row 수 합계만 조회
+    private void refresh(Checkpoint checkpoint) {
+        chunkTransaction.executeWithoutResult(status -> checkpoint.restore(
+                chunkRepository.findCompletedFromIds(checkpoint.jobId),
+                chunkRepository.sumUpdatedRows(checkpoint.jobId)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 진행 상황 - 완료된 chunk 와 수정된 row 수 (BulkUpdateJobChunk 에 저장된 값의 사본)
+     * */
+    @Getter
+    public static class Checkpoint {
+        private final long jobId;
+        private final int age;
+        private final long minId;
+        private final long maxId;
+        private final int chunkSize;
+        private final int totalChunks;
+        @Getter(AccessLevel.NONE)
+        private final Set<Long> completedChunks = ConcurrentHashMap.newKeySet(); // 완료된 chunk 시작 id
+        @Getter(AccessLevel.NONE)
+        private final AtomicLong affectedRows = new AtomicLong();
+
+        Checkpoint(long jobId, int age, long minId, long maxId, int chunkSize) {
+            this.jobId = jobId;
+            this.age = age;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.chunkSize = chunkSize;
+            this.totalChunks = maxId < minId ? 0 : (int) ((maxId - minId) / chunkSize + 1);
+        }
+
+        boolean isCompleted(long chunkFromId) {
+            return completedChunks.contains(chunkFromId);
+        }
+
+        void complete(long chunkFromId, int updated) {
+            if (completedChunks.add(chunkFromId)) {
+                affectedRows.addAndGet(updated);
+            }
+        }
+
+        //저장된 값으로 교체 - 커밋된 chunk 는 모두 저장되어 있으므로 합계도 저장된 값이 기준
+        void restore(List<Long> completedFromIds, long storedAffectedRows) {
+            completedChunks.addAll(completedFromIds);
+            affectedRows.set(storedAffectedRows);
+        }
+
+        public long getAffectedRows() {
+            return affectedRows.get();
+        }
+
+        public int getCompletedChunkCount() {
+            return completedChunks.size();
+        }
+
+        public boolean isDone() {
+            return completedChunks.size() == totalChunks;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package spring.datajpa.repository.support;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dto.MemberSnapshot;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 이름으로 Member 를 찾는 조회 결과 캐시 (read-through, MemberLookupCacheConfig)
+ * - 메서드(Repository 조회 방식) 별로 캐시를 분리 -> 메서드 별 hit ratio 확인 가능 (hitRatios, /actuator/metrics/cache.gets)
+ * - 엔티티 대신 MemberSnapshot(불변)을 저장
+ * - sync = true: 같은 이름을 동시에 조회하면 한 스레드만 DB 조회, 나머지는 그 결과를 기다림 (cache stampede 방지)
+ * - 크기 제한(W-TinyLFU)/TTL 은 datajpa.lookup-cache.* 로 설정
+ * - 무효화
+ *   - Member 저장/수정(changeTeam 포함)/삭제: 커밋 후 변경 전/후 이름만 제거 (MemberLookupCacheEvictListener)
+ *   - 벌크 연산(bulkAgePlus, deleteAllInBatch, write-behind flush): 어떤 이름이 바뀌었는지 모르므로 전체 제거
+ * */
+@Component
+public class MemberLookupCache {
+    public static final String FIND_BY_NAME = "member.findByName";
+    public static final String FIND_ENTITY_GRAPH_BY_NAME = "member.findEntityGraphByName";
+    public static final String FIND_NAMED_ENTITY_GRAPH_BY_NAME = "member.findNamedEntityGraphByName";
+    public static final String FIND_READ_ONLY_BY_NAME = "member.findReadOnlyByName";
+    public static final String JPA_FIND_BY_NAME = "memberJpa.findByName";
+    public static final List<String> CACHE_NAMES = List.of(FIND_BY_NAME, FIND_ENTITY_GRAPH_BY_NAME,
+            FIND_NAMED_ENTITY_GRAPH_BY_NAME, FIND_READ_ONLY_BY_NAME, JPA_FIND_BY_NAME);
+
+    private final MemberRepository memberRepository;
+    private final MemberJpaRepository memberJpaRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MemberLookupCache(MemberRepository memberRepository,
+                             MemberJpaRepository memberJpaRepository,
+                             CacheManager cacheManager,
+                             PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.memberJpaRepository = memberJpaRepository;
+        this.cacheManager = cacheManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Cacheable(cacheNames = FIND_BY_NAME, key = "#name", sync = true)
+    public List<MemberSnapshot> findByName(String name) {
+        return load(() -> MemberSnapshot.of(memberRepository.findByName(name)));
+    }
+
+    @Cacheable(cacheNames = FIND_ENTITY_GRAPH_BY_NAME, key = "#name", sync = true)
+    public List<MemberSnapshot> findEntityGraphByName(String name) {
+        return load(() -> MemberSnapshot.of(memberRepository.findEntityGraphByName(name)));
+    }
+
+    @Cacheable(cacheNames = FIND_NAMED_ENTITY_GRAPH_BY_NAME, key = "#name", sync = true)
+    public List<MemberSnapshot> findNamedEntityGraphByName(String name) {
+        return load(() -> MemberSnapshot.of(memberRepository.findNamedEntityGraphByName(name)));
+    }
+
+    //없으면 null (null 도 캐시)
+    @Cacheable(cacheNames = FIND_READ_ONLY_BY_NAME, key = "#name", sync = true)
+    public MemberSnapshot findReadOnlyByName(String name) {
+        return load(() -> MemberSnapshot.of(memberRepository.findReadOnlyByName(name)));
+    }
+
+    @Cacheable(cacheNames = JPA_FIND_BY_NAME, key = "#name", sync = true)
+    public List<MemberSnapshot> findByNameJpa(String name) {
+        return load(() -> MemberSnapshot.of(memberJpaRepository.findByName(name)));
+    }
+
+    @CacheEvict(cacheNames = {FIND_BY_NAME, FIND_ENTITY_GRAPH_BY_NAME, FIND_NAMED_ENTITY_GRAPH_BY_NAME,
+            FIND_READ_ONLY_BY_NAME, JPA_FIND_BY_NAME}, allEntries = true)
+    public void evictAll() {
+    }
+
+    //캐시(메서드) 별 hit ratio - 조회가 없었으면 1.0
+    public Map<String, Double> hitRatios() {
+        Map<String, Double> ratios = new LinkedHashMap<>();
+        for (String cacheName : CACHE_NAMES) {
+            ratios.put(cacheName, stats(cacheName).hitRate());
+        }
+        return ratios;
+    }
+
+    public CacheStats stats(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().stats();
+        }
+        return CacheStats.empty();
+    }
+
+    //스냅샷 변환 중 지연 로딩(team)이 필요하므로 읽기 전용 트랜잭션 안에서 조회
+    private <T> T load(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+}
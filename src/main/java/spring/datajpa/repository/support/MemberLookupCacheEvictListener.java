@@ -0,0 +1,122 @@
+package spring.datajpa.repository.support;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * MemberLookupCache 무효화 (MemberLookupCacheConfig 에서 등록)
+ * - Member INSERT/UPDATE/DELETE 시 변경 전/후 이름을 모아두었다가 커밋 후 해당 이름만 제거
+ *   -> 커밋 전에 제거하면 다른 스레드가 커밋 전 값을 다시 캐시할 수 있음
+ *   -> 롤백되면 제거하지 않음
+ * - Team 이름 변경/삭제는 어떤 Member 스냅샷에 포함됐는지 모르므로 전체 제거
+ * */
+public class MemberLookupCacheEvictListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private static final String NAME = "name"; //Member.name, Team.name
+
+    private final CacheManager cacheManager;
+    //세션(트랜잭션) 별 제거할 이름 - 트랜잭션이 끝나면 제거
+    private final Map<SharedSessionContractImplementor, Evictions> evictions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public MemberLookupCacheEvictListener(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            evictions(event.getSession()).add(name(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Evictions pending = evictions(event.getSession());
+            pending.add(name(event.getPersister(), event.getState()));
+            if (event.getOldState() == null) {
+                pending.all = true; //merge 등으로 변경 전 이름을 모르는 경우
+            } else {
+                pending.add(name(event.getPersister(), event.getOldState()));
+            }
+        } else if (event.getEntity() instanceof Team && (event.getOldState() == null
+                || !Objects.equals(name(event.getPersister(), event.getOldState()),
+                name(event.getPersister(), event.getState())))) {
+            evictions(event.getSession()).all = true;
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            evictions(event.getSession()).add(name(event.getPersister(), event.getDeletedState()));
+        } else if (event.getEntity() instanceof Team) {
+            evictions(event.getSession()).all = true;
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static String name(EntityPersister persister, Object[] state) {
+        return (String) state[persister.getEntityMetamodel().getPropertyIndex(NAME)];
+    }
+
+    private Evictions evictions(EventSource session) {
+        return evictions.computeIfAbsent(session, s -> {
+            Evictions created = new Evictions();
+            session.getActionQueue().registerProcess(created);
+            return created;
+        });
+    }
+
+    private class Evictions implements AfterTransactionCompletionProcess {
+        private final Set<String> names = new HashSet<>();
+        private boolean all;
+
+        void add(String name) {
+            if (name != null) {
+                names.add(name);
+            }
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            evictions.remove(session);
+            if (!success) {
+                return;
+            }
+            for (String cacheName : MemberLookupCache.CACHE_NAMES) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache == null) {
+                    continue;
+                }
+                if (all) {
+                    cache.clear();
+                } else {
+                    names.forEach(cache::evict);
+                }
+            }
+        }
+    }
+}
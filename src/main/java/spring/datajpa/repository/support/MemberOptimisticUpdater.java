@@ -0,0 +1,53 @@
+package spring.datajpa.repository.support;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+
+/**
+ * Member 수정 - 낙관적 락 버전 (findLockByName 의 PESSIMISTIC_WRITE 대안)
+ * - SELECT ... FOR UPDATE 없이 조회 후 변경 감지로 UPDATE ... WHERE version = ?
+ * - 충돌하면 OptimisticRetryExecutor 가 조회부터 다시 실행
+ * */
+@Component
+@RequiredArgsConstructor
+public class MemberOptimisticUpdater {
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    public Member changeTeam(Long memberId, Long teamId) {
+        return retryExecutor.execute(() -> {
+            Member member = findMember(memberId);
+            Team team = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new EntityNotFoundException("team not found: " + teamId));
+            member.changeTeam(team);
+            return member;
+        });
+    }
+
+    public Member changeAge(Long memberId, int age) {
+        return retryExecutor.execute(() -> {
+            Member member = findMember(memberId);
+            member.setAge(age);
+            return member;
+        });
+    }
+
+    public Member agePlus(Long memberId, int amount) {
+        return retryExecutor.execute(() -> {
+            Member member = findMember(memberId);
+            member.setAge(member.getAge() + amount);
+            return member;
+        });
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                .orElseThrow(() -> new EntityNotFoundException("member not found: " + memberId));
+    }
+}
@@ -0,0 +1,34 @@
+package spring.datajpa.repository.support;
+
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import spring.datajpa.entity.Member;
+
+/**
+ * Member INSERT 전 partitionKey 범위 확인 (MemberPartitionConfig 에서 등록)
+ * - MemberPartitionRouter 는 0 ~ datajpa.partition.count - 1 파티션만 조회/수정
+ *   -> 범위 밖 키로 저장된 Member 는 라우터 조회, bulkAgePlus 에서 빠지므로 저장 자체를 막음
+ * - partitionKey 는 updatable = false 이므로 INSERT 만 확인
+ * */
+public class MemberPartitionKeyValidator implements PreInsertEventListener {
+    private final int partitionCount;
+
+    public MemberPartitionKeyValidator(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            validate(member.getPartitionKey());
+        }
+        return false;
+    }
+
+    private void validate(int partitionKey) {
+        if (partitionKey < 0 || partitionKey >= partitionCount) {
+            throw new IllegalArgumentException("partition key " + partitionKey
+                    + " is out of range [0, " + partitionCount + ")");
+        }
+    }
+}
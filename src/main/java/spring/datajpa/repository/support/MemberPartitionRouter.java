@@ -0,0 +1,179 @@
+package spring.datajpa.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dto.MemberSnapshot;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 여러 파티션(Member.partitionKey)에 걸친 조회/수정을 파티션 별로 나눠서 병렬 실행 후 결과를 합침
+ * - 파티션 키: 0 ~ datajpa.partition.count - 1, 동시에 실행하는 파티션 수는 datajpa.partition.parallelism
+ * - 파티션 마다 별도 트랜잭션(별도 스레드) -> 엔티티 대신 MemberSnapshot 으로 반환 (지연 로딩 X)
+ *   -> 파티션 간 스냅샷 시점은 같지 않음
+ * - 페이징: 각 파티션에서 같은 정렬로 (page + 1) * size 개를 읽어 합친 후 정렬, page * size 개를 건너뜀
+ *   -> total 은 파티션 별 count 의 합, 뒤 페이지일수록 읽는 양이 늘어나므로 깊은 페이지는 파티션 하나로 좁혀서 조회
+ *   -> 정렬은 숫자 속성(id, age)만 지원 - 문자열은 DB collation(MySQL utf8mb4_0900_ai_ci 등)과 Java 의 비교 순서가 달라서
+ *      파티션 별 상위 row 를 Java 로 합치면 페이지가 겹치거나 row 가 빠짐 (이름 정렬이 필요하면 파티션 하나로 좁혀서 조회)
+ *   -> 정렬 값이 같으면 id 순서 (파티션 별 쿼리에도 id 정렬을 추가해서 같은 기준으로 합침)
+ * - bulkAgePlus: 파티션 별로 커밋 -> 일부 파티션이 실패하면 나머지가 끝날 때까지 기다린 후 예외
+ * - 범위 밖 partitionKey 로는 저장할 수 없음 (MemberPartitionKeyValidator) -> 모든 Member 가 라우터 조회 대상
+ * */
+@Component
+public class MemberPartitionRouter {
+    //정렬에 사용할 수 있는 MemberSnapshot 필드 - DB 와 Java 의 비교 순서가 같은 숫자 속성만
+    private static final Map<String, Function<MemberSnapshot, Comparable<?>>> SORT_PROPERTIES = Map.of(
+            "id", MemberSnapshot::id,
+            "age", MemberSnapshot::age);
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+    private final int partitionCount;
+
+    public MemberPartitionRouter(MemberRepository memberRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${datajpa.partition.count:16}") int partitionCount,
+                                 @Value("${datajpa.partition.parallelism:8}") int parallelism) {
+        this.memberRepository = memberRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.partitionCount = partitionCount;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "member-partition-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Page<MemberSnapshot> findByAge(int age, Pageable pageable) {
+        Sort sort = withIdOrder(pageable.getSort());
+        Comparator<MemberSnapshot> comparator = comparator(sort); //정렬 속성 검증을 파티션 쿼리 실행 전에
+        Pageable partitionPage = pageable.isPaged()
+                ? PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+        List<PartitionPage> pages = fanOut(partitionKey -> readTransaction.execute(status -> {
+            Page<MemberSnapshot> page = memberRepository.findByPartitionKeyAndAge(partitionKey, age, partitionPage)
+                    .map(MemberSnapshot::of);
+            return new PartitionPage(page.getContent(), page.getTotalElements());
+        }));
+
+        List<MemberSnapshot> merged = new ArrayList<>();
+        long total = 0;
+        for (PartitionPage page : pages) {
+            merged.addAll(page.content());
+            total += page.total();
+        }
+        merged.sort(comparator);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merged, pageable, total);
+        }
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(List.copyOf(merged.subList(from, to)), pageable, total);
+    }
+
+    //파티션 순서대로 합침
+    public List<MemberSnapshot> findByName(String name) {
+        return fanOut(partitionKey -> readTransaction.execute(
+                status -> MemberSnapshot.of(memberRepository.findByPartitionKeyAndName(partitionKey, name))))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    //수정된 row 수의 합
+    public int bulkAgePlus(int age) {
+        return fanOut(partitionKey -> writeTransaction.execute(status -> memberRepository.bulkAgePlus(partitionKey, age)))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    //파티션 별 결과를 파티션 키 순서로 반환
+    private <T> List<T> fanOut(IntFunction<T> task) {
+        List<Future<T>> futures = IntStream.range(0, partitionCount)
+                .mapToObj(partitionKey -> executor.submit(() -> task.apply(partitionKey)))
+                .toList();
+
+        List<T> results = new ArrayList<>(partitionCount);
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("partition fan-out interrupted", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause
+                            ? cause
+                            : new IllegalStateException("partition query failed", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    private static Sort withIdOrder(Sort sort) {
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<MemberSnapshot> comparator(Sort sort) {
+        Comparator<MemberSnapshot> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<MemberSnapshot, Comparable<?>> property = SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new IllegalArgumentException("unsupported sort property for partitioned query: " + order.getProperty());
+            }
+            Comparator<Comparable> values = order.isAscending()
+                    ? Comparator.nullsFirst(Comparator.<Comparable>naturalOrder())
+                    : Comparator.nullsLast(Comparator.<Comparable>reverseOrder());
+            Comparator<MemberSnapshot> next = Comparator.comparing(snapshot -> (Comparable) property.apply(snapshot), values);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record PartitionPage(List<MemberSnapshot> content, long total) {
+    }
+}
@@ -0,0 +1,392 @@
+package spring.datajpa.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.ChangeEvent;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.TotalCountCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Member name/age 변경을 메모리에 모아두었다가 JDBC batch UPDATE 로 한 번에 반영 (write-behind)
+ * - 같은 member id 에 대한 변경은 필드 별로 마지막 값만 남김 -> 100번 수정해도 UPDATE 1번
+ * - batch-size 만큼 쌓이거나 flush-interval 이 지나면 별도 스레드에서 flush (한 번의 트랜잭션)
+ * - 대기 중인 member 수는 capacity 로 제한, 가득 차면 flush 로 자리가 날 때까지 호출한 스레드가 대기(backpressure)
+ *   -> offer-timeout 안에 자리가 나지 않으면 거절
+ * - 종료 시 남은 변경을 모두 반영한 뒤 종료
+ * - 주의: flush 전까지 DB/JPA 조회에는 이전 값이 보임
+ * - flush 실패 처리
+ *   -> 일시적인 오류(커넥션, 잠금 대기 등): batch 전체를 다시 대기열로, 다음 flush 에서 다시 시도
+ *   -> 값 때문에 항상 실패하는 오류(NonTransientDataAccessException - 컬럼 길이 초과 등): 어느 row 인지 모르므로
+ *      한 건씩 나눠서 반영하고, 그래도 실패한 변경은 버림(dead letter - 로그와 getDeadLetterCount)
+ *      -> 한 row 때문에 batch 전체가 계속 재시도되면서 버퍼가 가득 차는 것을 막음
+ * - version 도 함께 올리고 2차 캐시의 해당 Member 를 제거 -> 낙관적 락, 캐시와 어긋나지 않도록
+ *   -> member 테이블을 조회한 쿼리 캐시 결과도 무효화 (QueryCacheSpaces)
+ * - 변경 전 이름을 모르므로 MemberLookupCache 는 전체 제거
+ * - 반영한 변경은 같은 트랜잭션에서 change_event(outbox)에도 기록 (Hibernate 이벤트가 발생하지 않으므로)
+ *   -> UPDATE 후 같은 트랜잭션에서 반영된 member 의 version 을 조회해서 payload 에 포함, 없는 member(UPDATE 0건)는 기록하지 않음
+ * */
+@Slf4j
+@Component
+public class MemberWriteBehindBuffer {
+    private static final String MEMBER_TABLE = "member";
+    private static final String UPDATE_NAME_AGE = "update member set name = ?, age = ?, version = version + 1 where member_id = ?";
+    private static final String UPDATE_NAME = "update member set name = ?, version = version + 1 where member_id = ?";
+    private static final String UPDATE_AGE = "update member set age = ?, version = version + 1 where member_id = ?";
+    private static final String SELECT_VERSION = "select member_id, version from member where member_id in ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TotalCountCache countCache;
+    private final MemberLookupCache lookupCache;
+    private final ChangeEventOutbox outbox;
+    private final int capacity;
+    private final int batchSize;
+    private final long offerTimeoutNanos;
+    private final ScheduledExecutorService flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock(); //flush 는 한 번에 하나만
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private Map<Long, PendingUpdate> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public MemberWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   EntityManagerFactory entityManagerFactory,
+                                   TotalCountCache countCache,
+                                   MemberLookupCache lookupCache,
+                                   ChangeEventOutbox outbox,
+                                   @Value("${datajpa.write-behind.capacity:10000}") int capacity,
+                                   @Value("${datajpa.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${datajpa.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                   @Value("${datajpa.write-behind.offer-timeout:5s}") Duration offerTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManagerFactory = entityManagerFactory;
+        this.countCache = countCache;
+        this.lookupCache = lookupCache;
+        this.outbox = outbox;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "member-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void updateName(Long memberId, String name) {
+        offer(memberId, name, null);
+    }
+
+    public void updateAge(Long memberId, int age) {
+        offer(memberId, null, age);
+    }
+
+    public void update(Long memberId, String name, int age) {
+        offer(memberId, name, age);
+    }
+
+    private void offer(Long memberId, String name, Integer age) {
+        int size;
+        lock.lock();
+        try {
+            long remaining = offerTimeoutNanos;
+            while (!closed && pending.size() >= capacity && !pending.containsKey(memberId)) {
+                if (remaining <= 0) {
+                    throw new RejectedExecutionException("write-behind buffer is full (capacity " + capacity + ")");
+                }
+                requestFlush();
+                remaining = notFull.awaitNanos(remaining);
+            }
+            if (closed) {
+                throw new IllegalStateException("write-behind buffer is closed");
+            }
+            pending.computeIfAbsent(memberId, id -> new PendingUpdate()).set(name, age);
+            size = pending.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for write-behind buffer", e);
+        } finally {
+            lock.unlock();
+        }
+        offered.increment();
+        if (size >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false); //종료 중 - 남은 변경은 close() 에서 반영
+            }
+        }
+    }
+
+    //대기 중인 변경을 지금 바로 반영하고 UPDATE 한 row 수를 반환
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            Map<Long, PendingUpdate> batch = drain();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                int rows = write(batch);
+                written.add(rows);
+                evict(batch);
+                return rows;
+            } catch (NonTransientDataAccessException e) {
+                log.warn("write-behind batch failed, writing {} updates one by one", batch.size(), e);
+                return writeEach(batch);
+            } catch (RuntimeException e) {
+                requeue(batch);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /*
+     - batch 를 한 건씩 별도 트랜잭션으로 반영 (batch 가 NonTransientDataAccessException 으로 실패한 경우만)
+     - 다시 NonTransientDataAccessException 이면 dead letter, 일시적인 오류면 다시 대기열로
+    * */
+    private int writeEach(Map<Long, PendingUpdate> batch) {
+        Map<Long, PendingUpdate> succeeded = new LinkedHashMap<>();
+        Map<Long, PendingUpdate> retry = new LinkedHashMap<>();
+        RuntimeException failure = null;
+        int rows = 0;
+        for (Map.Entry<Long, PendingUpdate> entry : batch.entrySet()) {
+            Map<Long, PendingUpdate> single = Map.of(entry.getKey(), entry.getValue());
+            try {
+                rows += write(single);
+                succeeded.putAll(single);
+            } catch (NonTransientDataAccessException e) {
+                deadLettered.increment();
+                log.error("write-behind update dropped: memberId={}, name={}, age={}",
+                        entry.getKey(), entry.getValue().name, entry.getValue().age, e);
+            } catch (RuntimeException e) {
+                retry.putAll(single);
+                failure = failure == null ? e : failure;
+            }
+        }
+        written.add(rows);
+        if (!succeeded.isEmpty()) {
+            evict(succeeded);
+        }
+        if (failure != null) {
+            requeue(retry);
+            throw failure;
+        }
+        return rows;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("write-behind flush failed, will retry", e);
+        }
+    }
+
+    private Map<Long, PendingUpdate> drain() {
+        lock.lock();
+        try {
+            Map<Long, PendingUpdate> batch = pending;
+            pending = new LinkedHashMap<>();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //실패한 변경을 다시 대기열로 - 그 사이 들어온 더 최신 값이 있으면 그 값을 유지
+    private void requeue(Map<Long, PendingUpdate> batch) {
+        lock.lock();
+        try {
+            batch.forEach((id, failed) -> pending.merge(id, failed, (newer, older) -> older.overwrite(newer)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int write(Map<Long, PendingUpdate> batch) {
+        List<Object[]> nameAndAge = new ArrayList<>();
+        List<Object[]> nameOnly = new ArrayList<>();
+        List<Object[]> ageOnly = new ArrayList<>();
+        batch.forEach((id, update) -> {
+            if (update.name != null && update.age != null) {
+                nameAndAge.add(new Object[]{update.name, update.age, id});
+            } else if (update.name != null) {
+                nameOnly.add(new Object[]{update.name, id});
+            } else {
+                ageOnly.add(new Object[]{update.age, id});
+            }
+        });
+        Integer rows = flushTransaction.execute(status -> {
+            batchUpdate(UPDATE_NAME_AGE, nameAndAge);
+            batchUpdate(UPDATE_NAME, nameOnly);
+            batchUpdate(UPDATE_AGE, ageOnly);
+            Map<Long, Long> versions = versions(new ArrayList<>(batch.keySet()));
+            outbox.append(changeEvents(batch, versions));
+            QueryCacheSpaces.invalidate(EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory), MEMBER_TABLE);
+            return versions.size();
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /*
+     - UPDATE 한 member 의 현재 version (member id -> version)
+     - 드라이버에 따라 batch 결과가 row 별 수정 수를 알려주지 않으므로(SUCCESS_NO_INFO) 직접 조회
+     - 이미 UPDATE 로 잠근 row 이므로 이 트랜잭션이 반영한 version
+    * */
+    private Map<Long, Long> versions(List<Long> ids) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            jdbcTemplate.query(SELECT_VERSION + "(" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                    rs -> {
+                        versions.put(rs.getLong(1), rs.getObject(2, Long.class));
+                    }, chunk.toArray());
+        }
+        return versions;
+    }
+
+    //UPDATE 된 member 만 기록 (ChangeEventListener 와 같이 version 포함)
+    private static List<ChangeEvent> changeEvents(Map<Long, PendingUpdate> batch, Map<Long, Long> versions) {
+        List<ChangeEvent> events = new ArrayList<>(versions.size());
+        batch.forEach((id, update) -> {
+            if (!versions.containsKey(id)) {
+                return;
+            }
+            Map<String, Object> payload = new LinkedHashMap<>();
+            if (update.name != null) {
+                payload.put("name", update.name);
+            }
+            if (update.age != null) {
+                payload.put("age", update.age);
+            }
+            payload.put("version", versions.get(id));
+            events.add(new ChangeEvent(Member.class.getSimpleName(), id, ChangeEvent.Type.UPDATED, ChangeEventOutbox.payload(payload)));
+        });
+        return events;
+    }
+
+    private void batchUpdate(String sql, List<Object[]> args) {
+        if (args.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, args, batchSize,
+                (ps, arg) -> {
+                    for (int i = 0; i < arg.length; i++) {
+                        ps.setObject(i + 1, arg[i]);
+                    }
+                });
+    }
+
+    private void evict(Map<Long, PendingUpdate> batch) {
+        batch.keySet().forEach(id -> entityManagerFactory.getCache().evict(Member.class, id));
+        if (batch.values().stream().anyMatch(update -> update.age != null)) {
+            countCache.invalidateAll();
+        }
+        lookupCache.evictAll();
+    }
+
+    //받은 변경 수 / DB 에 반영한 member 수 - 차이만큼 UPDATE 를 줄인 것
+    public long getOfferedCount() {
+        return offered.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    //반영하지 못하고 버린 변경 수
+    public long getDeadLetterCount() {
+        return deadLettered.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private static class PendingUpdate {
+        private String name;
+        private Integer age;
+
+        void set(String name, Integer age) {
+            if (name != null) {
+                this.name = name;
+            }
+            if (age != null) {
+                this.age = age;
+            }
+        }
+
+        //newer 에 없는 필드만 이 값으로 채움
+        PendingUpdate overwrite(PendingUpdate newer) {
+            set(newer.name, newer.age);
+            return this;
+        }
+    }
+}
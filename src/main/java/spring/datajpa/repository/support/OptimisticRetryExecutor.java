@@ -0,0 +1,87 @@
+package spring.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락(@Version) 충돌 시 트랜잭션 전체를 다시 실행
+ * - 시도마다 새 트랜잭션 -> 영속성 컨텍스트도 새로 만들어지므로 최신 version 으로 다시 조회
+ * - 재시도 간격: backoff * 2^(시도-1) 을 max-backoff 까지 늘리고 그 범위 안에서 무작위(jitter)로 대기
+ *   -> 충돌한 스레드들이 같은 시점에 다시 부딪히지 않도록
+ * - 이미 트랜잭션 안에서 호출하면 재시도해도 같은 영속성 컨텍스트를 쓰게 되므로 허용하지 않음
+ * */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final LongAdder retries = new LongAdder();
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${datajpa.optimistic.max-attempts:5}") int maxAttempts,
+                                   @Value("${datajpa.optimistic.backoff:10ms}") Duration backoff,
+                                   @Value("${datajpa.optimistic.max-backoff:200ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("max-attempts must be positive: " + maxAttempts);
+        }
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> command) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("optimistic retry must start outside of a transaction");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> command.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("optimistic lock failure after {} attempts", attempt);
+                    throw e;
+                }
+                retries.increment();
+                sleep(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable command) {
+        execute(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    //지금까지 재시도한 횟수 (충돌 빈도 확인용)
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    private void sleep(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for optimistic retry", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package spring.datajpa.repository.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+
+/**
+ * JDBC 로 직접 수정한 테이블의 쿼리 캐시(query cache) 결과 무효화
+ * - Hibernate 를 거치지 않은 UPDATE/DELETE 는 update timestamps 가 갱신되지 않음
+ *   -> 해당 테이블을 조회한 cacheable 쿼리가 커밋 후에도 이전 결과를 반환
+ * - Hibernate 의 벌크 연산과 같은 방식: 지금 pre-invalidate (트랜잭션 중 캐시 저장 방지), 트랜잭션이 끝나면 invalidate
+ * - 2차 캐시의 엔티티는 건드리지 않음 -> 엔티티 region 은 호출한 쪽에서 필요한 만큼만 제거
+ * - 수정한 트랜잭션 안에서 호출해야 함
+ * */
+public final class QueryCacheSpaces {
+    private QueryCacheSpaces() {
+    }
+
+    public static void invalidate(EntityManager em, String... tables) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        if (!session.getFactory().getSessionFactoryOptions().isQueryCacheEnabled()) {
+            return;
+        }
+        TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(tables, session);
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completed) -> timestamps.invalidate(tables, completed));
+    }
+}
@@ -0,0 +1,237 @@
+package spring.datajpa.repository.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Parameter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 기동 시 Repository 쿼리를 미리 한 번씩 실행 -> 배포 직후 첫 호출의 JPQL 파싱, SQM -> SQL 변환, prepare 비용 제거
+ * - 모든 Repository 의 쿼리 메서드: 아무것도 조회되지 않는 값(없는 이름, Integer.MAX_VALUE 등)으로 실행
+ *   -> 파라미터가 없는 메서드(전체 조회), @Modifying 메서드는 실행하지 않고 @Query 의 JPQL 만 미리 해석
+ *   -> @Lock 메서드는 잠금을 잡지 않도록 제외
+ * - 이름 있는 쿼리(@NamedQuery): setMaxResults(1) 로 실행
+ * - 각 실행은 새 읽기 전용 트랜잭션(REQUIRES_NEW)에서 rollback -> 호출한 쪽 트랜잭션에는 영향 X
+ * - 웹 서버가 요청을 받기 전(SmartInitializingSingleton)에 실행하고 결과는 getLastReport() / 로그로 확인
+ * - 실패해도 기동은 계속 (warn 로그)
+ * - datajpa.warmup.enabled=false 로 끌 수 있음
+ * */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryQueryWarmup implements SmartInitializingSingleton {
+    private static final String NO_MATCH = "__warmup__";
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate warmupTransaction;
+    @PersistenceContext
+    private EntityManager em;
+
+    @Getter
+    private Report lastReport;
+
+    public RepositoryQueryWarmup(ApplicationContext applicationContext,
+                                 EntityManagerFactory entityManagerFactory,
+                                 PlatformTransactionManager transactionManager) {
+        this.applicationContext = applicationContext;
+        this.entityManagerFactory = entityManagerFactory;
+        this.warmupTransaction = new TransactionTemplate(transactionManager);
+        this.warmupTransaction.setReadOnly(true);
+        this.warmupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param executed          실행한 쿼리 수 (Repository 메서드 + 이름 있는 쿼리)
+     * @param compiled          실행하지 않고 JPQL 만 해석한 쿼리 수
+     * @param skipped           건너뛴 메서드 수
+     * @param failed            실패한 쿼리 수
+     * @param elapsedMillis     warmup 에 걸린 시간
+     * @param planCacheHitRatio warmup 이후 Hibernate query plan cache 적중률 (통계를 끈 경우 NaN)
+     *                          JDBC 드라이버의 statement cache(JdbcStatementCacheConfig) 적중률은 포함하지 않음
+     *                          -> MySQL 드라이버의 cachePrepStmts 는 적중 수를 노출하지 않고 Hibernate / Hikari 통계에도 없음
+     */
+    public record Report(int executed, int compiled, int skipped, int failed, long elapsedMillis,
+                         double planCacheHitRatio) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        lastReport = warmup();
+        log.info("query warmup: executed={}, compiled={}, skipped={}, failed={} in {}ms, plan cache hit ratio={}",
+                lastReport.executed(), lastReport.compiled(), lastReport.skipped(), lastReport.failed(),
+                lastReport.elapsedMillis(), String.format("%.2f", lastReport.planCacheHitRatio()));
+    }
+
+    public Report warmup() {
+        long start = System.nanoTime();
+        Counts counts = new Counts();
+
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getQueryMethods()) {
+                warmupMethod(repository, domainType, method, counts);
+            }
+        }
+        for (String name : namedQueries()) {
+            warmupNamedQuery(name, counts);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new Report(counts.executed, counts.compiled, counts.skipped, counts.failed, elapsedMillis, planCacheHitRatio());
+    }
+
+    private void warmupMethod(Object repository, Class<?> domainType, Method method, Counts counts) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        boolean modifying = AnnotatedElementUtils.hasAnnotation(method, Modifying.class);
+        if (AnnotatedElementUtils.hasAnnotation(method, Lock.class)) {
+            counts.skipped++;
+            return;
+        }
+        if (modifying || method.getParameterCount() == 0) {
+            if (query == null || query.nativeQuery()) {
+                counts.skipped++;
+                return;
+            }
+            run(method.toGenericString(), counts, () -> em.createQuery(query.value()));
+            counts.compiled++;
+            return;
+        }
+
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            ResolvableType type = ResolvableType.forMethodParameter(method, i);
+            args[i] = Class.class.equals(type.resolve()) ? domainType : noMatchValue(type);
+        }
+        if (run(method.toGenericString(), counts, () -> close(ReflectionUtils.invokeMethod(method, repository, args)))) {
+            counts.executed++;
+        }
+    }
+
+    private void warmupNamedQuery(String name, Counts counts) {
+        boolean succeeded = run(name, counts, () -> {
+            jakarta.persistence.Query query = em.createNamedQuery(name).setMaxResults(1);
+            for (Parameter<?> parameter : query.getParameters()) {
+                Class<?> type = parameter.getParameterType();
+                Object value = noMatchValue(ResolvableType.forClass(type == null ? String.class : type));
+                if (parameter.getName() != null) {
+                    query.setParameter(parameter.getName(), value);
+                } else {
+                    query.setParameter(parameter.getPosition(), value);
+                }
+            }
+            query.getResultList();
+        });
+        if (succeeded) {
+            counts.executed++;
+        }
+    }
+
+    private boolean run(String name, Counts counts, Runnable warmup) {
+        try {
+            warmupTransaction.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                warmup.run();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            counts.failed++;
+            log.warn("query warmup failed: {}", name, e);
+            return false;
+        }
+    }
+
+    private List<String> namedQueries() {
+        List<String> names = new ArrayList<>();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getQueryEngine()
+                .getNamedObjectRepository()
+                .visitSqmQueryMementos(memento -> names.add(memento.getRegistrationName()));
+        return names;
+    }
+
+    private double planCacheHitRatio() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return Double.NaN;
+        }
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    //조회 결과가 없도록 고른 파라미터 값
+    private static Object noMatchValue(ResolvableType type) {
+        Class<?> rawType = type.toClass();
+        if (rawType == String.class) {
+            return NO_MATCH;
+        }
+        if (rawType == int.class || rawType == Integer.class) {
+            return Integer.MAX_VALUE;
+        }
+        if (rawType == long.class || rawType == Long.class) {
+            return Long.MAX_VALUE;
+        }
+        if (Collection.class.isAssignableFrom(rawType)) {
+            return List.of(noMatchValue(type.asCollection().getGeneric(0)));
+        }
+        if (rawType == Pageable.class) {
+            return PageRequest.of(0, 1);
+        }
+        if (rawType == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (rawType == Limit.class) {
+            return Limit.of(1);
+        }
+        if (rawType == ScrollPosition.class) {
+            return ScrollPosition.keyset();
+        }
+        throw new IllegalArgumentException("no warmup value for " + type);
+    }
+
+    private static void close(Object result) {
+        if (result instanceof Stream<?> stream) {
+            stream.close();
+        }
+    }
+
+    private static class Counts {
+        int executed;
+        int compiled;
+        int skipped;
+        int failed;
+    }
+}
@@ -0,0 +1,37 @@
+package spring.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * TeamRepository 비동기 Facade - AsyncQueryExecutor 에서 실행
+ * */
+@Component
+@RequiredArgsConstructor
+public class TeamAsyncRepository {
+    private final TeamRepository teamRepository;
+    private final AsyncQueryExecutor executor;
+
+    public CompletableFuture<Optional<Team>> findById(Long id) {
+        return executor.read(() -> teamRepository.findById(id));
+    }
+
+    public CompletableFuture<List<Team>> findAll() {
+        return executor.read(teamRepository::findAll);
+    }
+
+    public CompletableFuture<Team> save(Team team) {
+        return executor.write(() -> teamRepository.save(team));
+    }
+
+    public <T> CompletableFuture<T> read(Function<TeamRepository, T> query) {
+        return executor.read(() -> query.apply(teamRepository));
+    }
+}
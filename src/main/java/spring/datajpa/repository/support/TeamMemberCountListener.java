@@ -0,0 +1,126 @@
+package spring.datajpa.repository.support;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Team.memberCount 증분 갱신 (TeamMemberCountConfig 에서 등록)
+ * - Member INSERT/DELETE, team_id 변경(changeTeam, setTeam) 시 Team 별 증감을 모아두었다가
+ *   커밋 직전에 UPDATE team SET member_count = member_count + ? 로 한 번에 반영 (JDBC batch)
+ *   -> 엔티티 값을 덮어쓰지 않으므로 동시에 다른 트랜잭션이 같은 Team 을 바꿔도 값을 잃지 않음
+ *   -> Team 의 version 도 올리지 않음 (Member 이동이 Team 낙관적 락과 충돌하지 않도록)
+ * - 커밋 후 변경된 Team 만 2차 캐시에서 제거
+ * - JPQL/JDBC 벌크 DELETE, team_id 를 바꾸는 벌크 UPDATE 는 반영되지 않음 -> TeamMemberCountRepairJob
+ * */
+public class TeamMemberCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private static final String TEAM = "team";
+    private static final String UPDATE_MEMBER_COUNT = "update team set member_count = member_count + ? where team_id = ?";
+
+    //세션(트랜잭션) 별 증감 - 트랜잭션이 끝나면 제거
+    private final Map<SharedSessionContractImplementor, Deltas> deltas = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long teamId = teamId(event.getPersister(), event.getState(), event.getSession());
+            add(event.getSession(), teamId, 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member && event.getOldState() != null) {
+            Long oldTeamId = teamId(event.getPersister(), event.getOldState(), event.getSession());
+            Long newTeamId = teamId(event.getPersister(), event.getState(), event.getSession());
+            if (!Objects.equals(oldTeamId, newTeamId)) {
+                add(event.getSession(), oldTeamId, -1);
+                add(event.getSession(), newTeamId, 1);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long teamId = teamId(event.getPersister(), event.getDeletedState(), event.getSession());
+            add(event.getSession(), teamId, -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long teamId(EntityPersister persister, Object[] state, EventSource session) {
+        Object team = state[persister.getEntityMetamodel().getPropertyIndex(TEAM)];
+        if (team == null) {
+            return null;
+        }
+        return (Long) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Team.class)
+                .getIdentifier(team, session);
+    }
+
+    private void add(EventSource session, Long teamId, int delta) {
+        if (teamId == null) {
+            return;
+        }
+        deltas.computeIfAbsent(session, s -> {
+            Deltas created = new Deltas();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) created);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) created);
+            return created;
+        }).byTeam.merge(teamId, delta, Integer::sum);
+    }
+
+    private class Deltas implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+        //team_id 순서로 갱신 -> 트랜잭션끼리 row lock 순서가 같아 deadlock 방지
+        private final Map<Long, Integer> byTeam = new TreeMap<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            byTeam.values().removeIf(delta -> delta == 0);
+            if (byTeam.isEmpty()) {
+                return;
+            }
+            session.doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(UPDATE_MEMBER_COUNT)) {
+                    for (Map.Entry<Long, Integer> entry : byTeam.entrySet()) {
+                        ps.setInt(1, entry.getValue());
+                        ps.setLong(2, entry.getKey());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            });
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            deltas.remove(session);
+            if (success) {
+                byTeam.keySet().forEach(teamId -> session.getFactory().getCache().evictEntityData(Team.class, teamId));
+            }
+        }
+    }
+}
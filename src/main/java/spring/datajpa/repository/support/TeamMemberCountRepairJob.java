@@ -0,0 +1,69 @@
+package spring.datajpa.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.repository.TeamRepository;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Team.memberCount 정합성 복구
+ * - TeamMemberCountListener 가 반영하지 못한 변경(벌크 DELETE 등)으로 어긋난 값을 실제 Member 수로 다시 계산
+ * - datajpa.member-count.repair-interval 마다 실행 (0 이면 자동 실행하지 않음), repair() 로 직접 실행 가능
+ * */
+@Slf4j
+@Component
+public class TeamMemberCountRepairJob {
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate transaction;
+    private final ScheduledExecutorService scheduler;
+
+    public TeamMemberCountRepairJob(TeamRepository teamRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${datajpa.member-count.repair-interval:1h}") Duration interval) {
+        this.teamRepository = teamRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        if (interval.isZero() || interval.isNegative()) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "team-member-count-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::repairQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //값이 어긋나 있던 Team 수를 반환
+    public int repair() {
+        Integer repaired = transaction.execute(status -> teamRepository.repairMemberCounts());
+        if (repaired != null && repaired > 0) {
+            log.warn("repaired member count of {} teams", repaired);
+        }
+        return repaired == null ? 0 : repaired;
+    }
+
+    private void repairQuietly() {
+        try {
+            repair();
+        } catch (RuntimeException e) {
+            log.error("member count repair failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
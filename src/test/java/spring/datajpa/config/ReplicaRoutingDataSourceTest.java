@@ -0,0 +1,108 @@
+package spring.datajpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 DB(H2) 2개를 primary, replica 로 사용
+ * */
+class ReplicaRoutingDataSourceTest {
+    DataSource primary;
+    DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("drop all objects");
+        new JdbcTemplate(replica).execute("drop all objects");
+    }
+
+    @Test
+    public void readOnlyToReplica() {
+        //given
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                null, Duration.ofSeconds(5), Duration.ofSeconds(30));
+
+        //when
+        String read = nodeName(routing, true);
+        String write = nodeName(routing, false);
+
+        //then
+        assertThat(read).isEqualTo("replica");
+        assertThat(write).isEqualTo("primary");
+    }
+
+    @Test
+    public void replicaFailureFallsBackToPrimary() {
+        //given
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(broken, replica),
+                null, Duration.ofSeconds(5), Duration.ofSeconds(30));
+
+        //when
+        String first = nodeName(routing, true);
+        String second = nodeName(routing, true);
+
+        //then - 연결할 수 없는 replica 는 건너뜀
+        assertThat(first).isEqualTo("replica");
+        assertThat(second).isEqualTo("replica");
+
+        //only broken replica -> primary
+        ReplicaRoutingDataSource brokenOnly = new ReplicaRoutingDataSource(primary, List.of(broken),
+                null, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        assertThat(nodeName(brokenOnly, true)).isEqualTo("primary");
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() {
+        //given
+        new JdbcTemplate(replica).execute("create table replica_lag (seconds int)");
+        new JdbcTemplate(replica).execute("insert into replica_lag values (10)");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                "select seconds from replica_lag", Duration.ofSeconds(5), Duration.ofSeconds(30));
+
+        //when
+        routing.checkReplicas();
+        String lagging = nodeName(routing, true);
+
+        new JdbcTemplate(replica).execute("update replica_lag set seconds = 1");
+        routing.checkReplicas();
+        String recovered = nodeName(routing, true);
+
+        //then
+        assertThat(lagging).isEqualTo("primary");
+        assertThat(recovered).isEqualTo("replica");
+    }
+
+    private String nodeName(ReplicaRoutingDataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table node (name varchar(20))");
+        jdbc.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,76 @@
+package spring.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.metrics.repository.enabled=true")
+@Transactional
+@Rollback(value = false)
+class RepositoryMetricsTest {
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MeterRegistry registry;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    public void repositoryMethodMetrics() {
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("metric1", 10, team));
+        memberRepository.save(new Member("metric2", 10, team));
+        em.flush();
+        em.clear();
+
+        // 기동 시 RepositoryQueryWarmup 이 호출한 횟수는 제외
+        Timer timer = registry.get("datajpa.repository.invocations")
+                .tag("repository", "MemberRepository").tag("method", "findByName").tag("outcome", "success")
+                .timer();
+        DistributionSummary rows = registry.get("datajpa.repository.rows")
+                .tag("repository", "MemberRepository").tag("method", "findByName").summary();
+        long count = timer.count();
+        double rowTotal = rows.totalAmount();
+
+        //when
+        List<Member> members = memberRepository.findByName("metric1");
+        memberJpaRepository.findByName("metric2");
+        memberJpaRepository.saveAll(Stream.of(new Member("metric3", 10)));
+
+        //then
+        assertThat(members).hasSize(1);
+        assertThat(timer.count() - count).isEqualTo(1);
+        assertThat(rows.totalAmount() - rowTotal).isEqualTo(1);
+
+        DistributionSummary statements = registry.get("datajpa.repository.statements")
+                .tag("repository", "MemberJpaRepository").tag("method", "findByName").summary();
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(1);
+
+        DistributionSummary loaded = registry.get("datajpa.repository.entities.loaded")
+                .tag("repository", "MemberJpaRepository").tag("method", "findByName").summary();
+        assertThat(loaded.totalAmount()).isEqualTo(1);
+
+        // saveAll 안에서 호출한 BatchPersister 는 별도로 측정하지 않음
+        assertThat(registry.find("datajpa.repository.invocations").tag("repository", "MemberJpaRepository").tag("method", "saveAll").timer())
+                .isNotNull();
+        assertThat(registry.find("datajpa.repository.invocations").tag("repository", "BatchPersister").timers()).isEmpty();
+    }
+}
@@ -3,12 +3,27 @@ package spring.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import spring.datajpa.entity.Member;
 import spring.datajpa.repository.pure_jpa.MemberJpaRepository;
+import spring.datajpa.repository.support.MemberChunkedBulkUpdater;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -17,6 +32,9 @@ import static org.assertj.core.api.Assertions.*;
 @Rollback(value = false)
 class MemberJpaRepositoryTest {
     @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired BulkUpdateJobRepository bulkUpdateJobRepository;
+    @Autowired BulkUpdateJobChunkRepository bulkUpdateJobChunkRepository;
 
     @Test
     public void testMember() {
@@ -121,6 +139,127 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(7);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 캐시 무효화는 커밋 후에도 한 번 더 일어남
+    public void totalCountCacheEvict() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrentTx = new TransactionTemplate(transactionManager);
+        concurrentTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        //given
+        int age = 25;
+        tx.executeWithoutResult(status -> memberJpaRepository.save(new Member("member1", age)));
+        long before = memberJpaRepository.totalCount(age);
+
+        try {
+            //when
+            Long concurrent = tx.execute(status -> {
+                memberJpaRepository.save(new Member("member2", age));
+                // 커밋 전에 다른 트랜잭션이 이전 count 를 다시 캐시
+                return concurrentTx.execute(s -> memberJpaRepository.totalCount(age));
+            });
+            long afterCommit = memberJpaRepository.totalCount(age);
+
+            //then
+            assertThat(concurrent).isEqualTo(before);
+            assertThat(afterCommit).isEqualTo(before + 1);
+        } finally {
+            tx.executeWithoutResult(status -> memberJpaRepository.findAll().forEach(memberJpaRepository::delete));
+        }
+    }
+
+    @Test
+    public void pagingWithTotal() {
+        //given
+        memberJpaRepository.save(new Member("member1", 25));
+        memberJpaRepository.save(new Member("member2", 25));
+        memberJpaRepository.save(new Member("member3", 25));
+        memberJpaRepository.save(new Member("member4", 25));
+        memberJpaRepository.save(new Member("member5", 25));
+        memberJpaRepository.save(new Member("member6", 25));
+        memberJpaRepository.save(new Member("member7", 25));
+
+        //when
+        int age=25;
+        Page<Member> page = memberJpaRepository.findByPageWithTotal(age, 0, 3);
+        Page<Member> lastPage = memberJpaRepository.findByPageWithTotal(age, 2, 3);
+
+        //then
+        assertThat(page.getContent()).extracting(Member::getName).containsExactly("member7", "member6", "member5");
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(lastPage.getContent()).extracting(Member::getName).containsExactly("member1");
+        assertThat(lastPage.isLast()).isTrue();
+    }
+
+    @Test
+    public void keysetPaging() {
+        //given
+        memberJpaRepository.save(new Member("member1", 25));
+        memberJpaRepository.save(new Member("member2", 25));
+        memberJpaRepository.save(new Member("member3", 25));
+        memberJpaRepository.save(new Member("member4", 25));
+        memberJpaRepository.save(new Member("member5", 25));
+        memberJpaRepository.save(new Member("member6", 25));
+        memberJpaRepository.save(new Member("member7", 25));
+
+        //when
+        int age=25;
+        int limit=3;
+        Window<Member> first = memberJpaRepository.findByPageAfter(age, ScrollPosition.keyset(), limit);
+        // 마지막으로 읽은 (name, id)가 다음 페이지의 시작점
+        KeysetScrollPosition cursor = (KeysetScrollPosition) first.positionAt(first.size() - 1);
+        Window<Member> second = memberJpaRepository.findByPageAfter(age, cursor, limit);
+        KeysetScrollPosition lastCursor = (KeysetScrollPosition) second.positionAt(second.size() - 1);
+        Window<Member> last = memberJpaRepository.findByPageAfter(age, lastCursor, limit);
+
+        //then
+        assertThat(first.getContent()).extracting(Member::getName).containsExactly("member7", "member6", "member5");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Member::getName).containsExactly("member4", "member3", "member2");
+        assertThat(last.getContent()).extracting(Member::getName).containsExactly("member1");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    public void keysetPagingNullName() {
+        //given
+        int age = 26;
+        Member member1 = memberJpaRepository.save(new Member("member1", age));
+        Member member2 = memberJpaRepository.save(new Member("member2", age));
+        Member noName1 = memberJpaRepository.save(new Member(null, age));
+        Member noName2 = memberJpaRepository.save(new Member(null, age));
+        Member noName3 = memberJpaRepository.save(new Member(null, age));
+
+        //when - 페이지의 마지막 name 이 null 이어도 다음 페이지 조회
+        List<Member> scrolled = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<Member> window;
+        do {
+            window = memberJpaRepository.findByPageAfter(age, position, 2);
+            scrolled.addAll(window.getContent());
+            position = window.isEmpty() ? position : (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        } while (window.hasNext());
+
+        //then - name 내림차순, null 은 마지막 (id 내림차순)
+        assertThat(scrolled).containsExactly(member2, member1, noName3, noName2, noName1);
+        assertThatThrownBy(() -> memberJpaRepository.findByPageAfter(age, ScrollPosition.backward(Map.of("name", "member1", "id", member1.getId())), 2))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class); //@Repository 예외 변환 (IllegalArgumentException)
+    }
+
+    @Test
+    public void bulkInsert() {
+        //given
+        int total = 250; // batchSize(100) 보다 많은 건수
+
+        //when
+        long savedCount = memberJpaRepository.saveAll(
+                IntStream.rangeClosed(1, total).mapToObj(i -> new Member("member" + i, i % 50)));
+
+        //then
+        assertThat(savedCount).isEqualTo(total);
+        assertThat(memberJpaRepository.count()).isEqualTo(total);
+    }
+
     @Test
     public void bulkUpdate() {
         //given
@@ -140,4 +279,88 @@ class MemberJpaRepositoryTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // chunk 마다 별도 트랜잭션으로 커밋
+    public void chunkedBulkUpdate() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        tx.executeWithoutResult(status -> memberJpaRepository.saveAll(Stream.of(
+                new Member("member1", 10),
+                new Member("member2", 15),
+                new Member("member3", 17),
+                new Member("member4", 20),
+                new Member("member5", 25),
+                new Member("member6", 42),
+                new Member("member7", 37))));
+        // chunk 크기 2, 병렬 2
+        MemberChunkedBulkUpdater updater = new MemberChunkedBulkUpdater(memberJpaRepository, bulkUpdateJobRepository, bulkUpdateJobChunkRepository, transactionManager, 2, 2);
+
+        try {
+            //when
+            List<Integer> progress = new CopyOnWriteArrayList<>();
+            MemberChunkedBulkUpdater.Checkpoint checkpoint = updater.bulkAgePlus(20,
+                    c -> progress.add(c.getCompletedChunkCount()));
+
+            //then
+            assertThat(checkpoint.getAffectedRows()).isEqualTo(4);
+            assertThat(checkpoint.isDone()).isTrue();
+            assertThat(progress.size()).isEqualTo(checkpoint.getTotalChunks());
+            assertThat(bulkUpdateJobChunkRepository.findCompletedFromIds(checkpoint.getJobId()))
+                    .hasSize(checkpoint.getTotalChunks());
+
+            // 이미 완료된 Checkpoint 로 다시 실행해도 중복 수정되지 않음
+            updater.execute(checkpoint, c -> {
+            });
+            List<Member> result = tx.execute(status -> memberJpaRepository.findByName("member5"));
+            assertThat(result.get(0).getAge()).isEqualTo(26);
+        } finally {
+            updater.shutdown();
+            tx.executeWithoutResult(status -> memberJpaRepository.findAll().forEach(memberJpaRepository::delete));
+            bulkUpdateJobChunkRepository.deleteAllInBatch();
+            bulkUpdateJobRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // chunk 마다 별도 트랜잭션으로 커밋
+    public void chunkedBulkUpdateResume() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        tx.executeWithoutResult(status -> memberJpaRepository.saveAll(Stream.of(
+                new Member("member1", 10),
+                new Member("member2", 20),
+                new Member("member3", 30),
+                new Member("member4", 40),
+                new Member("member5", 50))));
+        MemberChunkedBulkUpdater updater = new MemberChunkedBulkUpdater(memberJpaRepository, bulkUpdateJobRepository, bulkUpdateJobChunkRepository, transactionManager, 2, 1);
+        // 재시작 후의 새 인스턴스
+        MemberChunkedBulkUpdater restarted = new MemberChunkedBulkUpdater(memberJpaRepository, bulkUpdateJobRepository, bulkUpdateJobChunkRepository, transactionManager, 2, 1);
+
+        try {
+            //when - 첫 chunk 커밋 후 실패
+            MemberChunkedBulkUpdater.Checkpoint checkpoint = updater.prepare(20);
+            assertThatThrownBy(() -> updater.execute(checkpoint, c -> {
+                throw new IllegalStateException("crash");
+            })).isInstanceOf(IllegalStateException.class);
+            // 저장된 진행 상황으로 이어서 실행
+            MemberChunkedBulkUpdater.Checkpoint resumed = restarted.resume(checkpoint.getJobId());
+            int completedBeforeResume = resumed.getCompletedChunkCount();
+            restarted.execute(resumed, c -> {
+            });
+
+            //then - 완료된 chunk 는 다시 실행하지 않으므로 한 번씩만 증가
+            assertThat(completedBeforeResume).isPositive();
+            assertThat(resumed.isDone()).isTrue();
+            assertThat(resumed.getAffectedRows()).isEqualTo(4);
+            List<Member> result = tx.execute(status -> memberJpaRepository.findAll());
+            assertThat(result).extracting(Member::getAge).containsExactlyInAnyOrder(10, 21, 31, 41, 51);
+        } finally {
+            updater.shutdown();
+            restarted.shutdown();
+            tx.executeWithoutResult(status -> memberJpaRepository.findAll().forEach(memberJpaRepository::delete));
+            bulkUpdateJobChunkRepository.deleteAllInBatch();
+            bulkUpdateJobRepository.deleteAll();
+        }
+    }
+}
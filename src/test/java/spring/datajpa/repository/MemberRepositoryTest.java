@@ -2,28 +2,78 @@ package spring.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dto.ChangeEventMessage;
 import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberNameOnly;
+import spring.datajpa.dto.MemberSnapshot;
+import spring.datajpa.dto.MemberSummary;
+import spring.datajpa.dto.MemberTeamView;
+import spring.datajpa.dto.TeamMemberCount;
+import spring.datajpa.dto.TeamSummary;
 import spring.datajpa.entity.Member;
+import spring.datajpa.entity.ChangeEvent;
 import spring.datajpa.entity.Team;
-
+import spring.datajpa.monitoring.QueryCounter;
+import spring.datajpa.monitoring.SecondLevelCacheStatistics;
+import spring.datajpa.repository.support.MemberAsyncRepository;
+import spring.datajpa.repository.support.MemberOptimisticUpdater;
+import spring.datajpa.repository.support.ChangeEventRelay;
+import spring.datajpa.repository.support.MemberLookupCache;
+import spring.datajpa.repository.support.MemberPartitionRouter;
+import spring.datajpa.repository.support.MemberWriteBehindBuffer;
+import spring.datajpa.repository.support.OptimisticRetryExecutor;
+import spring.datajpa.repository.support.RepositoryQueryWarmup;
+import spring.datajpa.repository.support.TeamMemberCountRepairJob;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -32,6 +82,18 @@ class MemberRepositoryTest {
     @Autowired MemberRepository memberRepository;
     @Autowired TeamRepository teamRepository;
     @PersistenceContext EntityManager em;
+    @Autowired SecondLevelCacheStatistics cacheStatistics;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberAsyncRepository memberAsyncRepository;
+    @Autowired OptimisticRetryExecutor optimisticRetryExecutor;
+    @Autowired MemberOptimisticUpdater memberOptimisticUpdater;
+    @Autowired MemberWriteBehindBuffer memberWriteBehindBuffer;
+    @Autowired RepositoryQueryWarmup repositoryQueryWarmup;
+    @Autowired TeamMemberCountRepairJob teamMemberCountRepairJob;
+    @Autowired MemberLookupCache memberLookupCache;
+    @Autowired ChangeEventRelay changeEventRelay;
+    @Autowired MemberPartitionRouter memberPartitionRouter;
+    @Autowired ConfigurableApplicationContext applicationContext;
 
     @Test
     public void testMember() {
@@ -163,6 +225,36 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void streamAll() {
+        //given
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("member1", 10, team));
+        memberRepository.save(new Member("member2", 20, team));
+        memberRepository.save(new Member("member3", 30, team));
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> members;
+        try (Stream<Member> stream = memberRepository.streamAll()) {
+            members = stream.toList();
+        }
+        List<MemberDto> dtos;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            dtos = stream.toList();
+        }
+
+        //then
+        assertThat(members.size()).isEqualTo(3);
+        // 읽으면서 detach 되었으므로 영속성 컨텍스트에 남아있지 않음
+        assertThat(members).noneMatch(em::contains);
+        // 2차 캐시에도 저장하지 않음
+        assertThat(members).noneMatch(member -> em.getEntityManagerFactory().getCache().contains(Member.class, member.getId()));
+        assertThat(dtos).extracting(MemberDto::getTeamName).containsOnly("teamA");
+    }
+
     @Test
     public void findByNames() {
         //given
@@ -182,6 +274,61 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findByNamesChunked() {
+        //given
+        for (int i = 0; i < 30; i++) {
+            memberRepository.save(new Member("member" + i, i));
+        }
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 30; i += 2) {
+            names.add("member" + i);
+        }
+        names.add("unknown");
+        em.flush();
+        em.clear();
+
+        //when
+        // chunk-size(1000) 보다 작으므로 IN 절 한 번
+        List<Member> result = memberRepository.findByNamesChunked(names);
+
+        //then
+        assertThat(result).extracting(Member::getName).containsExactlyInAnyOrderElementsOf(names.subList(0, 15));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 임시 테이블 DDL 이 트랜잭션을 커밋하는 DB(H2 등)도 있으므로 직접 정리
+    public void findByNamesTempTable() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < 30; i++) {
+                memberRepository.save(new Member("member" + i, i));
+            }
+        });
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 30; i += 2) {
+            names.add("member" + i);
+        }
+        // temp-table-threshold(10000) 이상이면 임시 테이블 + join
+        for (int i = 0; i < 10000; i++) {
+            names.add("none" + i);
+        }
+
+        try {
+            //when - 같은 트랜잭션(같은 커넥션)에서 두 번 호출 -> 임시 테이블이 남아 있으면 두 번째 생성에서 실패
+            List<List<Member>> results = tx.execute(status -> List.of(
+                    memberRepository.findByNamesChunked(names),
+                    memberRepository.findByNamesChunked(names)));
+
+            //then
+            assertThat(results).allSatisfy(result -> assertThat(result).extracting(Member::getName)
+                    .containsExactlyInAnyOrderElementsOf(names.subList(0, 15)));
+        } finally {
+            memberRepository.deleteAll();
+        }
+    }
+
     @Test
     public void paging() {
         //given
@@ -239,6 +386,153 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    public void pagingCountCached() {
+        //given
+        memberRepository.save(new Member("member1", 25));
+        memberRepository.save(new Member("member2", 25));
+        memberRepository.save(new Member("member3", 25));
+        memberRepository.save(new Member("member4", 25));
+        memberRepository.save(new Member("member5", 25));
+        memberRepository.save(new Member("member6", 25));
+        memberRepository.save(new Member("member7", 25));
+
+        //when
+        int age=25;
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "name"));
+        Page<Member> page = memberRepository.findByAgeCountCached(age, pageRequest);
+        // 마지막 페이지는 content 크기로 total 계산 -> count 쿼리 X
+        Page<Member> lastPage = memberRepository.findByAgeCountCached(age, PageRequest.of(2, 3, Sort.by(Sort.Direction.DESC, "name")));
+
+        //then
+        assertThat(page.getContent()).extracting(Member::getName).containsExactly("member7", "member6", "member5");
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(lastPage.getContent().size()).isEqualTo(1);
+        assertThat(lastPage.getTotalElements()).isEqualTo(7);
+
+        // save 시 캐시된 total count 무효화
+        memberRepository.save(new Member("member8", 25));
+        Page<Member> afterSave = memberRepository.findByAgeCountCached(age, pageRequest);
+        assertThat(afterSave.getTotalElements()).isEqualTo(8);
+    }
+
+    @Test
+    public void pagingWithTotal() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("member1", 25, teamA));
+        memberRepository.save(new Member("member2", 25, teamA));
+        memberRepository.save(new Member("member3", 25));
+        memberRepository.save(new Member("member4", 25));
+        memberRepository.save(new Member("member5", 25));
+        memberRepository.save(new Member("member6", 25));
+        memberRepository.save(new Member("member7", 25));
+        memberRepository.save(new Member("member8", 30));
+        em.flush();
+        em.clear();
+
+        //when
+        int age=25;
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "name"));
+        Page<Member> page;
+        // content + total count 를 select 1번으로
+        try (QueryCounter.Scope scope = QueryCounter.start("pagingWithTotal")) {
+            page = memberRepository.findByAgeWithTotal(age, pageRequest);
+            scope.assertStatementCount(1);
+        }
+        Page<MemberDto> dtoPage = memberRepository.findDtoByAgeWithTotal(age, PageRequest.of(2, 3, Sort.by(Sort.Direction.DESC, "name")));
+        // 범위를 벗어난 페이지 -> count 쿼리로 total 계산
+        Page<Member> outOfRange = memberRepository.findByAgeWithTotal(age, PageRequest.of(5, 3));
+
+        //then
+        assertThat(page.getContent()).extracting(Member::getName).containsExactly("member7", "member6", "member5");
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(dtoPage.getContent()).extracting(MemberDto::getUsername).containsExactly("member1");
+        assertThat(dtoPage.getContent()).extracting(MemberDto::getTeamName).containsExactly("teamA");
+        assertThat(dtoPage.getTotalElements()).isEqualTo(7);
+        assertThat(outOfRange.getContent()).isEmpty();
+        assertThat(outOfRange.getTotalElements()).isEqualTo(7);
+        assertThat(memberRepository.findByAgeWithTotal(40, pageRequest).getTotalElements()).isEqualTo(0);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 비동기 조회는 별도 스레드/트랜잭션에서 실행
+    public void asyncQuery() {
+        //given
+        memberRepository.save(new Member("member1", 25));
+        memberRepository.save(new Member("member2", 25));
+        memberRepository.save(new Member("member3", 30));
+
+        try {
+            //when
+            CompletableFuture<Page<Member>> page = memberAsyncRepository.findByAge(25, PageRequest.of(0, 10));
+            CompletableFuture<List<Member>> byName = memberAsyncRepository.findByName("member3");
+
+            //then
+            assertThat(page.join().getContent()).isNotEmpty();
+            assertThat(byName.join()).extracting(Member::getAge).containsExactly(30);
+        } finally {
+            memberRepository.deleteAll();
+        }
+    }
+
+    @Test
+    public void keysetScroll() {
+        //given
+        memberRepository.save(new Member("member1", 25));
+        memberRepository.save(new Member("member2", 25));
+        memberRepository.save(new Member("member3", 25));
+        memberRepository.save(new Member("member4", 25));
+        memberRepository.save(new Member("member5", 25));
+        memberRepository.save(new Member("member6", 25));
+        memberRepository.save(new Member("member7", 25));
+
+        //when
+        int age=25;
+        Window<Member> first = memberRepository.findWindowByAgeOrderByNameDescIdDesc(age, ScrollPosition.keyset(), Limit.of(3));
+        // 마지막으로 읽은 데이터의 위치(cursor)부터 다음 페이지 조회
+        ScrollPosition cursor = first.positionAt(first.size() - 1);
+        Window<Member> second = memberRepository.findWindowByAgeOrderByNameDescIdDesc(age, cursor, Limit.of(3));
+        Window<Member> last = memberRepository.findWindowByAgeOrderByNameDescIdDesc(age, second.positionAt(second.size() - 1), Limit.of(3));
+
+        //then
+        assertThat(first.getContent()).extracting(Member::getName).containsExactly("member7", "member6", "member5");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Member::getName).containsExactly("member4", "member3", "member2");
+        assertThat(last.getContent()).extracting(Member::getName).containsExactly("member1");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    public void keysetScrollNullName() {
+        //given
+        int age = 26;
+        Member member1 = memberRepository.save(new Member("member1", age));
+        Member member2 = memberRepository.save(new Member("member2", age));
+        Member noName1 = memberRepository.save(new Member(null, age));
+        Member noName2 = memberRepository.save(new Member(null, age));
+        Member noName3 = memberRepository.save(new Member(null, age));
+
+        //when - 첫 페이지 이후에도 name 이 null 인 Member 를 빠뜨리지 않음
+        List<Member> scrolled = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Member> window;
+        do {
+            window = memberRepository.findWindowByAgeOrderByNameDescIdDesc(age, position, Limit.of(2));
+            scrolled.addAll(window.getContent());
+            position = window.isEmpty() ? position : window.positionAt(window.size() - 1);
+        } while (window.hasNext());
+
+        //then - name 내림차순, null 은 마지막 (id 내림차순)
+        assertThat(scrolled).containsExactly(member2, member1, noName3, noName2, noName1);
+        assertThatThrownBy(() -> memberRepository.findWindowByAgeOrderByNameDescIdDesc(age, ScrollPosition.offset(), Limit.of(2)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
     @Test
     public void bulkUpdate() {
         //given
@@ -264,6 +558,40 @@ class MemberRepositoryTest {
         assertThat(member5.getAge()).isEqualTo(26);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 2차 캐시는 트랜잭션 커밋 이후 다른 트랜잭션에서 조회될 때 사용됨
+    public void secondLevelCache() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        Team team = teamRepository.save(new Team("teamA"));
+        Member member = memberRepository.save(new Member("member1", 25, team));
+        Statistics statistics = enableStatistics();
+
+        try {
+            teamRepository.findById(team.getId()); // DB 조회 후 2차 캐시에 저장
+            memberRepository.findById(member.getId());
+            long teamHit = cacheStatistics.region("team").hitCount();
+
+            //when
+            Team findTeam = teamRepository.findById(team.getId()).get(); // 2차 캐시에서 조회
+
+            //then
+            assertThat(findTeam.getName()).isEqualTo("teamA");
+            assertThat(cacheStatistics.region("team").hitCount()).isEqualTo(teamHit + 1);
+
+            // 벌크 연산은 member region 을 비우므로 변경된 값이 조회됨
+            tx.executeWithoutResult(status -> memberRepository.bulkAgePlus(20));
+            Member afterBulk = memberRepository.findById(member.getId()).get();
+            assertThat(afterBulk.getAge()).isEqualTo(26);
+            System.out.println("member cache = " + cacheStatistics.region("member"));
+            System.out.println("team cache = " + cacheStatistics.region("team"));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
     @Test
     public void findMemberLazy() {
         //given
@@ -298,6 +626,72 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void batchFetch() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        teamRepository.save(teamC);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+        memberRepository.save(new Member("member3", 30, teamC));
+        em.flush();
+        em.clear();
+
+        //when
+        //지연 로딩 + batch fetch: select Member 1번 + select Team 1번 (IN 으로 묶어서 조회, 없으면 Team 3번 -> N+1)
+        try (QueryCounter.Scope scope = QueryCounter.start("lazy")) {
+            List<Member> members = memberRepository.findByNames(Arrays.asList("member1", "member2", "member3"));
+            for (Member member : members) {
+                member.getTeam().getName();
+            }
+
+            //then
+            scope.assertStatementCount(2);
+            scope.assertNoRepeatedStatements(2);
+        }
+        em.clear();
+
+        //컬렉션 지연 로딩 + batch fetch: select Team 1번 + select Member 1번
+        try (QueryCounter.Scope scope = QueryCounter.start("lazyCollection")) {
+            List<Team> teams = teamRepository.findAll();
+            for (Team team : teams) {
+                team.getMembers().size();
+            }
+
+            //then
+            scope.assertStatementCount(2);
+        }
+        em.clear();
+
+        //페이징 + batch fetch: fetch join 없이 페이징 쿼리 + select Team 1번
+        try (QueryCounter.Scope scope = QueryCounter.start("paging")) {
+            Slice<Member> slice = memberRepository.findSliceByAge(20, PageRequest.of(0, 2));
+            for (Member member : slice) {
+                member.getTeam().getName();
+            }
+
+            //then
+            scope.assertMaxStatementCount(2);
+        }
+        em.clear();
+
+        //fetch join: select 1번
+        try (QueryCounter.Scope scope = QueryCounter.start("fetchJoin")) {
+            List<Member> members = memberRepository.findMemberFetchJoin();
+            for (Member member : members) {
+                member.getTeam().getName();
+            }
+
+            //then
+            scope.assertStatementCount(1);
+            scope.assertNoRepeatedStatements(2);
+        }
+    }
+
     @Test
     public void findMemberEntityGraph() {
         //given
@@ -386,6 +780,493 @@ class MemberRepositoryTest {
         em.flush();
     }
 
+    @Test
+    public void projections() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        List<MemberNameOnly> nameOnly = memberRepository.findNameOnlyByAge(10);
+        List<MemberSummary> summaries = memberRepository.findSummaryByAge(10);
+        List<MemberTeamView> teamViews = memberRepository.findTeamViewByAge(10);
+        List<MemberSummary> dynamic = memberRepository.findProjectionsByName("member1", MemberSummary.class);
+        List<MemberNameOnly> dynamicNameOnly = memberRepository.findProjectionsByName("member1", MemberNameOnly.class);
+        List<TeamSummary> teams = teamRepository.findSummaryBy();
+
+        //then
+        assertThat(nameOnly).extracting(MemberNameOnly::getName).containsExactlyInAnyOrder("member1", "member2");
+        assertThat(summaries).extracting(MemberSummary::name).containsExactlyInAnyOrder("member1", "member2");
+        assertThat(teamViews).extracting(MemberTeamView::teamName).containsOnly("teamA");
+        //엔티티를 만들지 않으므로 영속성 컨텍스트는 비어 있음
+        assertThat(em.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities()).isZero();
+        assertThat(dynamic).containsExactly(new MemberSummary(dynamic.get(0).id(), "member1", 10));
+        assertThat(dynamicNameOnly).extracting(MemberNameOnly::getName).containsExactly("member1");
+        assertThat(teams).extracting(TeamSummary::name).containsExactly("teamA");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // write-behind 는 별도 트랜잭션에서 반영
+    public void writeBehind() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member member1 = memberRepository.save(new Member("member1", 10, teamA));
+        Member member2 = memberRepository.save(new Member("member2", 20));
+        memberRepository.findMemberDto(); //쿼리 캐시에 저장
+        long missingId = member2.getId() + 1_000_000;
+        long offered = memberWriteBehindBuffer.getOfferedCount();
+        long written = memberWriteBehindBuffer.getWrittenCount();
+        List<ChangeEventMessage> published = new CopyOnWriteArrayList<>();
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof ChangeEventRelay.Batch batch) {
+                published.addAll(batch.events());
+            }
+        };
+        applicationContext.addApplicationListener(listener);
+
+        try {
+            //when
+            for (int age = 11; age <= 100; age++) {
+                memberWriteBehindBuffer.updateAge(member1.getId(), age);
+            }
+            memberWriteBehindBuffer.updateName(member1.getId(), "renamed");
+            memberWriteBehindBuffer.updateName(member2.getId(), "member2-renamed");
+            memberWriteBehindBuffer.updateName(missingId, "missing"); //없는 member - UPDATE 0건
+            memberWriteBehindBuffer.flush();
+            changeEventRelay.drain();
+
+            //then
+            Member findMember1 = memberRepository.findById(member1.getId()).get();
+            Member findMember2 = memberRepository.findById(member2.getId()).get();
+            assertThat(findMember1.getName()).isEqualTo("renamed");
+            assertThat(findMember1.getAge()).isEqualTo(100);
+            assertThat(findMember1.getVersion()).isEqualTo(member1.getVersion() + 1);
+            assertThat(findMember2.getName()).isEqualTo("member2-renamed");
+            assertThat(findMember2.getAge()).isEqualTo(20);
+            assertThat(memberWriteBehindBuffer.getOfferedCount() - offered).isEqualTo(93);
+            assertThat(memberWriteBehindBuffer.getWrittenCount() - written).isEqualTo(2);
+            assertThat(memberRepository.findMemberDto()).extracting(MemberDto::getUsername).containsExactly("renamed");
+            //UPDATE 된 member 만 version 과 함께 기록
+            assertThat(published).noneMatch(event -> Long.valueOf(missingId).equals(event.aggregateId()));
+            assertThat(published).filteredOn(event -> member1.getId().equals(event.aggregateId()))
+                    .extracting(ChangeEventMessage::payload)
+                    .contains("{\"name\":\"renamed\",\"age\":100,\"version\":" + findMember1.getVersion() + "}");
+        } finally {
+            applicationContext.removeApplicationListener(listener);
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // write-behind 는 별도 트랜잭션에서 반영
+    public void writeBehindDeadLetter() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Member member2 = memberRepository.save(new Member("member2", 20));
+        long deadLetters = memberWriteBehindBuffer.getDeadLetterCount();
+
+        try {
+            //when - member2 는 컬럼 길이(255)를 넘는 이름이라 항상 실패
+            memberWriteBehindBuffer.updateName(member1.getId(), "renamed");
+            memberWriteBehindBuffer.updateName(member2.getId(), "x".repeat(300));
+            memberWriteBehindBuffer.flush();
+
+            //then - 실패한 변경만 버리고 나머지는 반영, 다시 대기열로 들어가지 않음
+            assertThat(memberRepository.findById(member1.getId()).get().getName()).isEqualTo("renamed");
+            assertThat(memberRepository.findById(member2.getId()).get().getName()).isEqualTo("member2");
+            assertThat(memberWriteBehindBuffer.getDeadLetterCount() - deadLetters).isEqualTo(1);
+            assertThat(memberWriteBehindBuffer.flush()).isZero();
+        } finally {
+            memberRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // warmup 은 쿼리마다 별도 트랜잭션에서 rollback
+    public void queryWarmup() {
+        //given - 기동 시 한 번 실행됨
+        RepositoryQueryWarmup.Report startup = repositoryQueryWarmup.getLastReport();
+        Statistics statistics = enableStatistics(); //plan cache hit ratio
+
+        //when
+        RepositoryQueryWarmup.Report report;
+        try {
+            report = repositoryQueryWarmup.warmup();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        //then
+        assertThat(startup.failed()).isZero();
+        assertThat(startup.executed()).isPositive();
+        assertThat(startup.compiled()).isPositive();
+        assertThat(report.failed()).isZero();
+        assertThat(report.planCacheHitRatio()).isPositive(); // 두 번째 실행은 plan cache 에서 재사용
+    }
+
+    @Test
+    public void bytecodeEnhancement() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        memberRepository.save(member1);
+
+        //when
+        member1.changeTeam(teamB);
+
+        //then - 새 Team.members 에 한 번만 추가
+        assertThat(teamB.getMembers()).containsExactly(member1);
+
+        em.flush();
+        em.clear();
+        Member findMember = memberRepository.findById(member1.getId()).get();
+
+        //lazy loading: 프록시가 아닌 초기화되지 않은 Team 인스턴스
+        assertThat(findMember.getTeam()).isNotInstanceOf(HibernateProxy.class);
+        assertThat(Hibernate.isInitialized(findMember.getTeam())).isFalse();
+        assertThat(findMember.getTeam().getName()).isEqualTo("teamB");
+
+        //dirty tracking: 변경한 필드만 기록
+        findMember.setAge(20);
+        assertThat(((SelfDirtinessTracker) findMember).$$_hibernate_getDirtyAttributes()).containsExactly("age");
+
+        //changeTeam / new Member(..., team) 은 초기화되지 않은 Team.members 를 로딩하지 않음
+        Team findTeamB = findMember.getTeam();
+        Team findTeamA = teamRepository.findById(teamA.getId()).get();
+        findMember.changeTeam(findTeamA);
+        memberRepository.save(new Member("member2", 10, findTeamA));
+        assertThat(Hibernate.isInitialized(findTeamA.getMembers())).isFalse();
+        assertThat(Hibernate.isInitialized(findTeamB.getMembers())).isFalse();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // memberCount 는 커밋 시점에 반영
+    public void teamMemberCount() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        List<Member> members = tx.execute(status -> {
+            teamRepository.save(teamA);
+            teamRepository.save(teamB);
+            return List.of(
+                    memberRepository.save(new Member("member1", 10, teamA)),
+                    memberRepository.save(new Member("member2", 10, teamA)),
+                    memberRepository.save(new Member("member3", 10, teamB)));
+        });
+        List<Long> teamIds = List.of(teamA.getId(), teamB.getId());
+
+        try {
+            //when - 팀 변경, 삭제
+            tx.executeWithoutResult(status -> {
+                Member member1 = memberRepository.findById(members.get(0).getId()).get();
+                member1.changeTeam(teamRepository.findById(teamB.getId()).get());
+                memberRepository.deleteById(members.get(2).getId());
+            });
+
+            //then
+            assertThat(teamRepository.findMemberCounts(teamIds))
+                    .containsExactlyInAnyOrder(new TeamMemberCount(teamA.getId(), 1), new TeamMemberCount(teamB.getId(), 1));
+            assertThat(teamRepository.findById(teamB.getId()).get().getMemberCount()).isEqualTo(1);
+
+            //when - 리스너를 거치지 않은 변경은 복구 작업으로 맞춤
+            tx.executeWithoutResult(status -> em.createQuery("delete from Member m where m.team.id = :teamId")
+                    .setParameter("teamId", teamA.getId())
+                    .executeUpdate());
+            int repaired = teamMemberCountRepairJob.repair();
+
+            //then
+            assertThat(repaired).isEqualTo(1);
+            assertThat(teamRepository.findMemberCounts(teamIds))
+                    .containsExactlyInAnyOrder(new TeamMemberCount(teamA.getId(), 0), new TeamMemberCount(teamB.getId(), 1));
+        } finally {
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 캐시 무효화는 커밋 후에 일어남
+    public void lookupCache() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Member member1 = tx.execute(status -> {
+            teamRepository.save(teamA);
+            teamRepository.save(teamB);
+            return memberRepository.save(new Member("cached1", 10, teamA));
+        });
+        memberLookupCache.evictAll();
+
+        try {
+            //when - 같은 이름 두 번째 조회부터는 캐시
+            long hitsBefore = memberLookupCache.stats(MemberLookupCache.FIND_BY_NAME).hitCount();
+            List<MemberSnapshot> first = memberLookupCache.findByName("cached1");
+            List<MemberSnapshot> second = memberLookupCache.findByName("cached1");
+
+            //then
+            assertThat(first).containsExactly(new MemberSnapshot(member1.getId(), "cached1", 10, teamA.getId(), "teamA"));
+            assertThat(second).isSameAs(first);
+            assertThat(memberLookupCache.stats(MemberLookupCache.FIND_BY_NAME).hitCount() - hitsBefore).isEqualTo(1);
+            assertThat(memberLookupCache.hitRatios()).containsOnlyKeys(MemberLookupCache.CACHE_NAMES);
+
+            //when - 동시에 조회해도 DB 조회는 한 번 (sync = true)
+            long loadsBefore = memberLookupCache.stats(MemberLookupCache.FIND_ENTITY_GRAPH_BY_NAME).loadCount();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<MemberSnapshot>>> results = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return memberLookupCache.findEntityGraphByName("cached1");
+                    }));
+                }
+                start.countDown();
+                for (Future<List<MemberSnapshot>> result : results) {
+                    assertThat(result.get()).hasSize(1);
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertThat(memberLookupCache.stats(MemberLookupCache.FIND_ENTITY_GRAPH_BY_NAME).loadCount() - loadsBefore).isEqualTo(1);
+
+            //when - 팀 변경, 이름 변경은 커밋 후 해당 이름만 무효화
+            tx.executeWithoutResult(status -> memberRepository.findById(member1.getId()).get()
+                    .changeTeam(teamRepository.findById(teamB.getId()).get()));
+
+            //then
+            assertThat(memberLookupCache.findByName("cached1")).extracting(MemberSnapshot::teamName).containsExactly("teamB");
+
+            tx.executeWithoutResult(status -> memberRepository.findById(member1.getId()).get().setName("cached2"));
+            assertThat(memberLookupCache.findByName("cached1")).isEmpty();
+            assertThat(memberLookupCache.findReadOnlyByName("cached2").age()).isEqualTo(10);
+
+            //when - 벌크 연산은 전체 무효화
+            memberRepository.bulkAgePlus(10);
+
+            //then
+            assertThat(memberLookupCache.findReadOnlyByName("cached2").age()).isEqualTo(11);
+            assertThat(memberLookupCache.findByNameJpa("cached2")).extracting(MemberSnapshot::age).containsExactly(11);
+
+            //when - 삭제
+            memberRepository.deleteById(member1.getId());
+
+            //then
+            assertThat(memberLookupCache.findReadOnlyByName("cached2")).isNull();
+            assertThat(memberLookupCache.findByNameJpa("cached2")).isEmpty();
+        } finally {
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Team.memberCount 증가는 커밋 직전에 반영됨
+    public void primitiveIds() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        List<Member> members = tx.execute(status -> {
+            teamRepository.save(teamA);
+            teamRepository.save(teamB);
+            return List.of(
+                    memberRepository.save(new Member("member1", 10, teamA)),
+                    memberRepository.save(new Member("member2", 20, teamA)),
+                    memberRepository.save(new Member("member3", 30, teamB)));
+        });
+        long id1 = members.get(0).getId();
+        long id2 = members.get(1).getId();
+        long id3 = members.get(2).getId();
+
+        try {
+            //when
+            long[] teamAMemberIds = memberRepository.findIdsByTeamId(teamA.getId());
+            long[] olderIds = memberRepository.findIdsByAgeGreaterThan(15);
+            long[] existingIds = memberRepository.findExistingIds(new long[]{id1, -1L, id3});
+            // 트랜잭션 안에서는 flush 전 변경도 포함해서 조회
+            long[] withUnflushed = tx.execute(status -> {
+                memberRepository.save(new Member("member4", 40, teamA));
+                return memberRepository.findIdsByTeamId(teamA.getId());
+            });
+
+            //then
+            assertThat(teamAMemberIds).containsExactly(id1, id2);
+            assertThat(olderIds).contains(id2, id3).doesNotContain(id1);
+            assertThat(existingIds).containsExactlyInAnyOrder(id1, id3);
+            assertThat(withUnflushed).hasSize(3).startsWith(id1, id2);
+            assertThat(memberRepository.findIdsByTeamId(-1L)).isEmpty();
+            assertThat(teamRepository.findAllIds()).contains(teamA.getId(), teamB.getId());
+            assertThat(teamRepository.findIdsByMemberCountGreaterThanEqual(3)).containsExactly(teamA.getId());
+
+            //when - 삭제 시 Team.memberCount 도 함께 감소
+            memberRepository.findMemberDto(); //쿼리 캐시에 저장
+            int deleted = memberRepository.deleteAllByIdInBatch(new long[]{id1, id3});
+
+            //then
+            assertThat(deleted).isEqualTo(2);
+            assertThat(memberRepository.findMemberDto()).extracting(MemberDto::getId).contains(id2).doesNotContain(id1, id3);
+            assertThat(memberRepository.findExistingIds(new long[]{id1, id2, id3})).containsExactly(id2);
+            assertThat(teamRepository.findMemberCounts(List.of(teamA.getId(), teamB.getId())))
+                    .containsExactlyInAnyOrder(new TeamMemberCount(teamA.getId(), 2), new TeamMemberCount(teamB.getId(), 0));
+        } finally {
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 이벤트는 커밋된 후에만 발행됨
+    public void changeEventOutbox() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<ChangeEventMessage> published = new CopyOnWriteArrayList<>();
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof ChangeEventRelay.Batch batch) {
+                published.addAll(batch.events());
+            }
+        };
+        applicationContext.addApplicationListener(listener);
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Member member1 = tx.execute(status -> {
+            teamRepository.save(teamA);
+            teamRepository.save(teamB);
+            return memberRepository.save(new Member("member1", 10, teamA));
+        });
+
+        try {
+            //when
+            tx.executeWithoutResult(status -> {
+                Member member = memberRepository.findById(member1.getId()).get();
+                member.changeTeam(teamRepository.findById(teamB.getId()).get());
+                member.setAge(11);
+            });
+            tx.executeWithoutResult(status -> { //롤백된 변경은 기록되지 않음
+                memberRepository.findById(member1.getId()).get().setName("rollback");
+                status.setRollbackOnly();
+            });
+            memberRepository.bulkAgePlus(11);
+            memberRepository.deleteById(member1.getId());
+            changeEventRelay.drain();
+
+            //then
+            List<ChangeEventMessage> memberEvents = published.stream()
+                    .filter(event -> "Member".equals(event.aggregateType()) && member1.getId().equals(event.aggregateId()))
+                    .toList();
+            assertThat(memberEvents).extracting(ChangeEventMessage::type)
+                    .containsExactly(ChangeEvent.Type.CREATED, ChangeEvent.Type.UPDATED, ChangeEvent.Type.BULK_UPDATED, ChangeEvent.Type.DELETED);
+            assertThat(memberEvents).extracting(ChangeEventMessage::id).isSorted();
+            assertThat(memberEvents.get(0).payload()).contains("\"name\":\"member1\"", "\"teamId\":" + teamA.getId());
+            assertThat(memberEvents.get(1).payload()).contains("\"teamId\":" + teamB.getId(), "\"age\":11").doesNotContain("name");
+            assertThat(published).extracting(ChangeEventMessage::payload).noneMatch(payload -> payload.contains("rollback"));
+            assertThat(memberEvents.get(2).payload()).contains("\"operation\":\"bulkAgePlus\"", "\"args\":[11]");
+        } finally {
+            applicationContext.removeApplicationListener(listener);
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 벌크 삭제와 이벤트 INSERT 가 함께 커밋되는지 확인
+    public void changeEventOutboxLargeBulkDelete() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        //given - in-list chunk 크기(1000)보다 많은 id + 없는 id
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            members.add(new Member("member" + i, i));
+        }
+        List<Long> saved = memberRepository.saveAll(members).stream().map(Member::getId).toList();
+        long missingId = saved.stream().mapToLong(Long::longValue).max().getAsLong() + 1_000_000;
+        long[] ids = LongStream.concat(saved.stream().mapToLong(Long::longValue), LongStream.of(missingId)).toArray();
+
+        try {
+            //when - relay 가 발행 후 삭제하기 전에 같은 트랜잭션에서 이벤트 확인
+            List<ChangeEvent> events = tx.execute(status -> {
+                memberRepository.deleteAllByIdInBatch(ids);
+                return em.createQuery("select e from ChangeEvent e where e.type = :type and e.aggregateId in :ids", ChangeEvent.class)
+                        .setParameter("type", ChangeEvent.Type.BULK_DELETED)
+                        .setParameter("ids", Arrays.stream(ids).boxed().toList())
+                        .getResultList();
+            });
+
+            //then - 삭제된 id 마다 이벤트 1개, 없는 id 는 이벤트 없음
+            assertThat(memberRepository.findExistingIds(ids)).isEmpty();
+            assertThat(events).extracting(ChangeEvent::getAggregateId).containsExactlyInAnyOrderElementsOf(saved);
+            assertThat(events).extracting(ChangeEvent::getPayload)
+                    .containsOnly("{\"operation\":\"deleteAllByIdInBatch\"}");
+        } finally {
+            memberRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 파티션 별 쿼리는 라우터 스레드에서 각자 트랜잭션으로 실행
+    public void partitionRouting() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            members.add(new Member("member" + (i % 5), 10 + i % 2, teamA, i % 4));
+        }
+        memberRepository.saveAll(members);
+
+        try {
+            //when
+            PageRequest pageRequest = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id"));
+            Page<MemberSnapshot> page = memberPartitionRouter.findByAge(10, pageRequest);
+            Page<Member> partition = memberRepository.findByPartitionKeyAndAge(2, 10, PageRequest.of(0, 10));
+            List<MemberSnapshot> byName = memberPartitionRouter.findByName("member0");
+
+            //then
+            List<MemberSnapshot> expected = members.stream()
+                    .filter(member -> member.getAge() == 10)
+                    .sorted(Comparator.comparing(Member::getId).reversed())
+                    .map(MemberSnapshot::of)
+                    .toList();
+            assertThat(page.getTotalElements()).isEqualTo(expected.size());
+            assertThat(page.getContent()).containsExactlyElementsOf(expected.subList(2, 4));
+            assertThat(partition.getContent()).extracting(Member::getPartitionKey).containsOnly(2);
+            assertThat(partition.getTotalElements()).isEqualTo(3);
+            assertThat(byName).extracting(MemberSnapshot::name).containsOnly("member0");
+            assertThat(byName).extracting(MemberSnapshot::id)
+                    .containsExactlyInAnyOrderElementsOf(members.stream()
+                            .filter(member -> member.getName().equals("member0")).map(Member::getId).toList());
+
+            //when
+            int updated = memberPartitionRouter.bulkAgePlus(11);
+
+            //then
+            assertThat(updated).isEqualTo(6);
+            assertThat(memberPartitionRouter.findByAge(12, Pageable.unpaged()).getTotalElements()).isEqualTo(6);
+
+            //then - 라우터가 조회하지 않는 partitionKey 로는 저장할 수 없음, 지원하지 않는 정렬은 조회 전에 거절
+            int outOfRange = memberPartitionRouter.getPartitionCount();
+            assertThatThrownBy(() -> memberRepository.save(new Member("outOfRange", 10, teamA, outOfRange)))
+                    .hasStackTraceContaining("partition key " + outOfRange + " is out of range");
+            assertThatThrownBy(() -> new Member("negative", 10, teamA, -1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> memberPartitionRouter.findByAge(10, PageRequest.of(0, 2, Sort.by("team"))))
+                    .isInstanceOf(IllegalArgumentException.class);
+            //문자열 정렬은 DB collation 과 Java 비교 순서가 달라서 지원하지 않음
+            assertThatThrownBy(() -> memberPartitionRouter.findByAge(10, PageRequest.of(0, 2, Sort.by("name"))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            memberRepository.deleteAll();
+            teamRepository.deleteAll();
+        }
+    }
+
     @Test
     public void lock() {
         //given
@@ -398,4 +1279,43 @@ class MemberRepositoryTest {
         List<Member> findMember = memberRepository.findLockByName(member1.getName());
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 재시도는 시도마다 새 트랜잭션에서 실행
+    public void optimisticLockRetry() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Long initialVersion = member1.getVersion();
+        TransactionTemplate concurrentTx = new TransactionTemplate(transactionManager);
+        concurrentTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            //when
+            optimisticRetryExecutor.run(() -> {
+                Member findMember = memberRepository.findById(member1.getId()).get();
+                if (attempts.incrementAndGet() == 1) {
+                    // 다른 트랜잭션이 먼저 수정 -> 첫 번째 시도는 version 불일치로 실패
+                    concurrentTx.executeWithoutResult(status ->
+                            memberRepository.findById(member1.getId()).get().setName("concurrent"));
+                }
+                findMember.setAge(findMember.getAge() + 1);
+            });
+            Member updated = memberOptimisticUpdater.changeAge(member1.getId(), 20);
+
+            //then
+            assertThat(attempts.get()).isEqualTo(2);
+            assertThat(updated.getName()).isEqualTo("concurrent");
+            assertThat(updated.getAge()).isEqualTo(20);
+            assertThat(updated.getVersion()).isEqualTo(initialVersion + 3);
+        } finally {
+            memberRepository.deleteAll();
+        }
+    }
+
+    //datajpa.cache.statistics 는 기본값이 꺼져 있으므로 통계를 확인하는 테스트에서만 켬
+    private Statistics enableStatistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+}